@@ -0,0 +1,15 @@
+package study.datajpa.projection;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+//닫힌(closed) 인터페이스 프로젝션에 붙이면 같은 패키지에 {인터페이스명}Impl 구현 클래스를 생성한다.
+//생성자 파라미터는 getter 선언 순서이고, 중첩 프로젝션(인터페이스를 반환하는 getter)은 그 getter 들을 펼쳐서 받는다.
+//예) NestedClosedProjections(getUsername, getTeam().getName()) -> new NestedClosedProjectionsImpl(username, teamName)
+//JPQL 생성자 표현식(select new ...Impl(...))으로 조회하면 스프링 데이터가 프록시를 만들지 않고 그대로 반환한다.
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface ClosedProjection {
+}
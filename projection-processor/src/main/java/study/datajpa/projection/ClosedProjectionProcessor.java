@@ -0,0 +1,303 @@
+package study.datajpa.projection;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+//@ClosedProjection 인터페이스마다 final 구현 클래스를 생성한다.
+//필드 + 생성자 + getter 뿐이라 프록시, InvocationHandler, 값 Map 없이 조회 결과를 담고, getter 호출은 단순 필드 읽기가 된다.
+@SupportedAnnotationTypes("study.datajpa.projection.ClosedProjection")
+public class ClosedProjectionProcessor extends AbstractProcessor {
+
+    private static final String VALUE_ANNOTATION = "org.springframework.beans.factory.annotation.Value";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(ClosedProjection.class)) {
+            if (element.getKind() != ElementKind.INTERFACE) {
+                error(element, "@ClosedProjection 은 인터페이스에만 사용할 수 있습니다.");
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            List<Property> properties = properties(type, new ArrayList<>());
+            if (properties == null) {
+                continue;
+            }
+            try {
+                write(type, properties);
+            } catch (IOException e) {
+                error(type, "프로젝션 구현 클래스 생성 실패: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    //getter 선언 순서대로 프로퍼티를 읽는다. 닫힌 프로젝션이 아니면 에러를 남기고 null
+    //상위 인터페이스에서 상속한 getter 도 구현해야 하므로 getAllMembers 에서 인터페이스의 추상 메소드를 모두 읽는다.
+    //path: 지금 읽고 있는 바깥 프로젝션들. 자기 자신을 (간접적으로) 반환하는 중첩 프로젝션은 펼칠 수 없으므로 에러
+    private List<Property> properties(TypeElement type, List<TypeElement> path) {
+        List<Property> properties = new ArrayList<>();
+        boolean valid = true;
+        path.add(type);
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (!method.getModifiers().contains(Modifier.ABSTRACT) || method.getEnclosingElement().getKind() != ElementKind.INTERFACE) {
+                continue;  // static, default, Object 메소드
+            }
+            String name = propertyName(method);
+            if (name == null) {
+                error(method, "닫힌 프로젝션은 파라미터가 없는 getter 만 선언할 수 있습니다.");
+                valid = false;
+                continue;
+            }
+            if (isOpenProjection(method)) {
+                error(method, "@Value 를 사용하는 열린 프로젝션은 구현 클래스를 생성할 수 없습니다.");
+                valid = false;
+                continue;
+            }
+            TypeElement nestedType = nestedProjection(method.getReturnType());
+            if (nestedType != null && path.contains(nestedType)) {
+                error(method, "중첩 프로젝션 " + nestedType.getQualifiedName() + " 이 자기 자신을 참조하므로 구현 클래스를 생성할 수 없습니다.");
+                valid = false;
+                continue;
+            }
+            List<Property> nested = nestedType == null ? null : properties(nestedType, path);
+            if (nestedType != null && nested == null) {
+                valid = false;
+                continue;
+            }
+            properties.add(new Property(name, method.getSimpleName().toString(), method.getReturnType(), nestedType, nested));
+        }
+        path.remove(path.size() - 1);
+        return valid ? properties : null;
+    }
+
+    private static String propertyName(ExecutableElement method) {
+        String methodName = method.getSimpleName().toString();
+        if (!method.getParameters().isEmpty() || method.getReturnType().getKind() == TypeKind.VOID) {
+            return null;
+        }
+        if (methodName.startsWith("get") && methodName.length() > 3) {
+            return decapitalize(methodName.substring(3));
+        }
+        if (methodName.startsWith("is") && methodName.length() > 2 && method.getReturnType().getKind() == TypeKind.BOOLEAN) {
+            return decapitalize(methodName.substring(2));
+        }
+        return null;
+    }
+
+    private static boolean isOpenProjection(ExecutableElement method) {
+        for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+            if (annotation.getAnnotationType().toString().equals(VALUE_ANNOTATION)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //중첩 프로젝션: java.* 가 아닌 인터페이스를 반환하는 getter (예: NestedClosedProjections.getTeam())
+    private TypeElement nestedProjection(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        if (element.getKind() != ElementKind.INTERFACE || element.getQualifiedName().toString().startsWith("java.")) {
+            return null;
+        }
+        return element;
+    }
+
+    private void write(TypeElement type, List<Property> properties) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String className = implementationName(type);
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        source.append("public final class ").append(className).append(" implements ").append(type.getQualifiedName()).append(" {\n");
+
+        Map<String, TypeElement> nestedClasses = new LinkedHashMap<>();
+        appendBody(source, className, properties, "public ", "    ", nestedClasses);
+        //중첩 프로젝션 구현은 private static 클래스로 만든다. 생성 중에 더 깊은 중첩 프로젝션이 추가될 수 있으므로 인덱스로 순회
+        for (int i = 0; i < nestedClasses.size(); i++) {
+            String nestedClassName = new ArrayList<>(nestedClasses.keySet()).get(i);
+            TypeElement nestedType = nestedClasses.get(nestedClassName);
+            source.append("\n    private static final class ").append(nestedClassName)
+                    .append(" implements ").append(nestedType.getQualifiedName()).append(" {\n");
+            appendBody(source, nestedClassName, properties(nestedType, new ArrayList<>()), "", "        ", nestedClasses);
+            source.append("    }\n");
+        }
+        source.append("}\n");
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(packageName.isEmpty() ? className : packageName + "." + className, type).openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    private void appendBody(StringBuilder source, String className, List<Property> properties, String constructorModifier,
+                            String indent, Map<String, TypeElement> nestedClasses) {
+        //필드
+        for (Property property : properties) {
+            source.append('\n').append(indent).append("private final ").append(property.fieldType()).append(' ').append(property.name).append(';');
+        }
+        source.append("\n\n");
+
+        //생성자: 중첩 프로젝션은 펼친 파라미터로 받아서 직접 만든다. 펼친 값이 모두 null 이면 (left join 으로 연관 엔티티가 없으면) null
+        List<ConstructorParameter> parameters = new ArrayList<>();
+        for (Property property : properties) {
+            flatten(property, "", parameters);
+        }
+        source.append(indent).append(constructorModifier).append(className).append('(');
+        for (int i = 0; i < parameters.size(); i++) {
+            source.append(i == 0 ? "" : ", ").append(parameters.get(i).type).append(' ').append(parameters.get(i).name);
+        }
+        source.append(") {\n");
+        for (Property property : properties) {
+            source.append(indent).append("    this.").append(property.name).append(" = ").append(initializer(property, "", nestedClasses)).append(";\n");
+        }
+        source.append(indent).append("}\n");
+
+        //getter
+        for (Property property : properties) {
+            source.append('\n').append(indent).append("@Override\n")
+                    .append(indent).append("public ").append(property.fieldType()).append(' ').append(property.methodName).append("() {\n")
+                    .append(indent).append("    return ").append(property.name).append(";\n")
+                    .append(indent).append("}\n");
+        }
+
+        //equals, hashCode, toString
+        source.append('\n').append(indent).append("@Override\n")
+                .append(indent).append("public boolean equals(Object o) {\n")
+                .append(indent).append("    if (this == o) return true;\n")
+                .append(indent).append("    if (!(o instanceof ").append(className).append(" that)) return false;\n")
+                .append(indent).append("    return ");
+        for (int i = 0; i < properties.size(); i++) {
+            source.append(i == 0 ? "" : "\n" + indent + "            && ").append("java.util.Objects.equals(")
+                    .append(properties.get(i).name).append(", that.").append(properties.get(i).name).append(')');
+        }
+        if (properties.isEmpty()) {
+            source.append("true");
+        }
+        source.append(";\n").append(indent).append("}\n");
+
+        source.append('\n').append(indent).append("@Override\n")
+                .append(indent).append("public int hashCode() {\n")
+                .append(indent).append("    return java.util.Objects.hash(");
+        for (int i = 0; i < properties.size(); i++) {
+            source.append(i == 0 ? "" : ", ").append(properties.get(i).name);
+        }
+        source.append(");\n").append(indent).append("}\n");
+
+        source.append('\n').append(indent).append("@Override\n")
+                .append(indent).append("public String toString() {\n")
+                .append(indent).append("    return \"").append(className).append("(\"");
+        for (int i = 0; i < properties.size(); i++) {
+            source.append(" + \"").append(i == 0 ? "" : ", ").append(properties.get(i).name).append("=\" + ").append(properties.get(i).name);
+        }
+        source.append(" + \")\";\n").append(indent).append("}\n");
+    }
+
+    private void flatten(Property property, String prefix, List<ConstructorParameter> parameters) {
+        String name = prefix.isEmpty() ? property.name : prefix + capitalize(property.name);
+        if (property.nested == null) {
+            parameters.add(new ConstructorParameter(name, property.type));
+            return;
+        }
+        for (Property nested : property.nested) {
+            flatten(nested, name, parameters);
+        }
+    }
+
+    private String initializer(Property property, String prefix, Map<String, TypeElement> nestedClasses) {
+        String name = prefix.isEmpty() ? property.name : prefix + capitalize(property.name);
+        if (property.nested == null) {
+            return name;
+        }
+        String nestedClassName = implementationName(property.nestedType);
+        nestedClasses.putIfAbsent(nestedClassName, property.nestedType);
+
+        List<ConstructorParameter> parameters = new ArrayList<>();
+        flatten(property, prefix, parameters);
+        StringBuilder arguments = new StringBuilder();
+        StringBuilder allNull = new StringBuilder();
+        for (ConstructorParameter parameter : parameters) {
+            arguments.append(arguments.length() == 0 ? "" : ", ").append(parameter.name);
+            if (!parameter.type.getKind().isPrimitive()) {
+                allNull.append(allNull.length() == 0 ? "" : " && ").append(parameter.name).append(" == null");
+            }
+        }
+        String construct = "new " + nestedClassName + "(" + arguments + ")";
+        return allNull.length() == 0 ? construct : allNull + " ? null : " + construct;
+    }
+
+    //패키지를 뺀 바이너리 이름의 $ 를 _ 로 바꾼 이름 + Impl. 예) Outer.Inner -> Outer_InnerImpl
+    //단순 이름만 쓰면 서로 다른 바깥 타입의 같은 이름 중첩 인터페이스끼리 충돌한다. (ProjectionPlan 도 같은 규칙으로 찾는다.)
+    private String implementationName(TypeElement type) {
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String name = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+        return name.replace('$', '_') + "Impl";
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static String decapitalize(String name) {
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private static final class ConstructorParameter {
+        final String name;
+        final TypeMirror type;
+
+        ConstructorParameter(String name, TypeMirror type) {
+            this.name = name;
+            this.type = type;
+        }
+    }
+
+    private static final class Property {
+        final String name;
+        final String methodName;
+        final TypeMirror type;
+        final TypeElement nestedType;
+        final List<Property> nested;
+
+        Property(String name, String methodName, TypeMirror type, TypeElement nestedType, List<Property> nested) {
+            this.name = name;
+            this.methodName = methodName;
+            this.type = type;
+            this.nestedType = nestedType;
+            this.nested = nested;
+        }
+
+        String fieldType() {
+            return nestedType != null ? nestedType.getQualifiedName().toString() : type.toString();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package study.datajpa.projection;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//프로세서를 javac(javax.tools)로 직접 실행해서 생성된 소스와 에러 메시지를 확인한다.
+class ClosedProjectionProcessorTest {
+
+    @TempDir
+    Path output;
+
+    @Test
+    void implementInheritedGetters() throws IOException {
+        //given: 상위 인터페이스의 getter 를 상속한 프로젝션
+        JavaFileObject source = source("p.Outer", """
+                package p;
+                import study.datajpa.projection.ClosedProjection;
+                public class Outer {
+                    public interface Named { String getName(); }
+                    @ClosedProjection
+                    public interface Inner extends Named {
+                        Team getTeam();
+                        default String label() { return getName(); }
+                    }
+                    public interface Team extends Named { int getSize(); }
+                }
+                """);
+
+        //when
+        DiagnosticCollector<JavaFileObject> diagnostics = compile(source);
+
+        //then: 생성된 소스까지 컴파일된다.
+        assertThat(diagnostics.getDiagnostics()).noneMatch(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR);
+        String generated = Files.readString(output.resolve("p/Outer_InnerImpl.java"));
+        assertThat(generated)
+                .contains("public Outer_InnerImpl(java.lang.String name, java.lang.String teamName, int teamSize)")
+                .contains("public java.lang.String getName()")
+                .contains("teamName == null ? null : new Outer_TeamImpl(teamName, teamSize)")  // int 는 null 검사에서 뺀다.
+                .doesNotContain("label()");
+    }
+
+    @Test
+    void rejectSelfReferencingNestedProjection() {
+        //given
+        JavaFileObject source = source("p.Category", """
+                package p;
+                import study.datajpa.projection.ClosedProjection;
+                @ClosedProjection
+                public interface Category {
+                    String getName();
+                    Category getParent();
+                }
+                """);
+
+        //when
+        DiagnosticCollector<JavaFileObject> diagnostics = compile(source);
+
+        //then: 무한 재귀 대신 에러
+        assertThat(diagnostics.getDiagnostics())
+                .anyMatch(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR
+                        && diagnostic.getMessage(null).contains("자기 자신을 참조"));
+        assertThat(output.resolve("p/CategoryImpl.java")).doesNotExist();
+    }
+
+    private DiagnosticCollector<JavaFileObject> compile(JavaFileObject source) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics,
+                List.of("-d", output.toString(), "-s", output.toString(), "-classpath", System.getProperty("java.class.path")),
+                null, List.of(source));
+        task.setProcessors(List.of(new ClosedProjectionProcessor()));
+        task.call();
+        return diagnostics;
+    }
+
+    private static JavaFileObject source(String className, String code) {
+        return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+}
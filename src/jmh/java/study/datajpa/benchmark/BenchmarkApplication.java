@@ -0,0 +1,30 @@
+package study.datajpa.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.DataJpaApplication;
+
+import java.util.stream.Stream;
+
+//벤치마크용 스프링 컨텍스트. 웹 서버 없이 인메모리 H2 로 JPA 계층만 띄운다.
+//SQL 로그, p6spy 는 측정값을 왜곡하므로 끈다.
+public final class BenchmarkApplication {
+
+    private static final String[] DEFAULT_PROPERTIES = {
+            "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+            "spring.jpa.properties.hibernate.format_sql=false",
+            "logging.level.org.hibernate.SQL=warn",
+            "decorator.datasource.enabled=false"
+    };
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(DataJpaApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(Stream.concat(Stream.of(DEFAULT_PROPERTIES), Stream.of(properties)).toArray(String[]::new))
+                .run();
+    }
+}
@@ -0,0 +1,69 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.service.MemberService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//동시 수정 64 스레드: 비관적 락(findLockByUsername) vs 낙관적 락(@Version + @OptimisticRetry)
+//hotMembers 가 적을수록 경합이 심하다. 낙관적 락이 재시도 횟수를 다 쓰고 실패한 수정은 failures 로 센다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(64)
+public class MemberContentionBenchmark {
+
+    @Param({"1", "16", "1024"})
+    int hotMembers;
+
+    ConfigurableApplicationContext context;
+    MemberService memberService;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Failures {
+        public long failures;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("spring.datasource.hikari.maximum-pool-size=64");
+        memberService = context.getBean(MemberService.class);
+
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < hotMembers; i++) {
+            members.add(new Member("hot" + i, 0));
+        }
+        context.getBean(MemberRepository.class).saveAllBatched(members, 1000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void pessimistic() {
+        memberService.increaseAgeWithLock(randomHotMember());
+    }
+
+    @Benchmark
+    public void optimistic(Failures failures) {
+        try {
+            memberService.increaseAge(randomHotMember());
+        } catch (OptimisticLockingFailureException e) {
+            failures.failures++;
+        }
+    }
+
+    private String randomHotMember() {
+        return "hot" + ThreadLocalRandom.current().nextInt(hotMembers);
+    }
+}
@@ -0,0 +1,143 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.NestedClosedProjections;
+import study.datajpa.repository.TeamRepository;
+import study.datajpa.repository.UserNameOnly;
+import study.datajpa.repository.UsernameOnlyDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+//MemberRepository 의 조회 전략별 처리량, 할당량 비교
+//모든 회원의 username 을 같게 만들어서 username 조건 메소드와 전체 조회 메소드가 같은 건수를 읽도록 맞춘다.
+//결과는 같은 데이터, 같은 JVM 옵션으로 반복 측정할 수 있도록 시드 데이터를 고정한다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MemberFetchBenchmark {
+
+    private static final String USERNAME = "bench";
+
+    @Param({"100", "10000"})
+    int memberCount;
+
+    @Param({"10"})
+    int teamCount;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        memberRepository.deleteAllInBatch();  // 애플리케이션 시작 시 저장되는 샘플 데이터 제거
+        List<Team> teams = context.getBean(TeamRepository.class).saveAll(
+                IntStream.range(0, teamCount).mapToObj(i -> new Team("team" + i)).toList());
+
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < memberCount; i++) {
+            members.add(new Member(USERNAME, i, teams.get(i % teamCount)));
+        }
+        memberRepository.saveAllBatched(members, 1000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void fetchJoin(Blackhole bh) {
+        readOnlyTransaction.executeWithoutResult(status -> consumeMembers(memberRepository.findMemberFetchJoin(), bh));
+    }
+
+    @Benchmark
+    public void entityGraph(Blackhole bh) {
+        readOnlyTransaction.executeWithoutResult(status -> consumeMembers(memberRepository.findMemberEntityGraph(), bh));
+    }
+
+    @Benchmark
+    public void namedEntityGraph(Blackhole bh) {
+        readOnlyTransaction.executeWithoutResult(status -> consumeMembers(memberRepository.findEntityGraphByUsername(USERNAME), bh));
+    }
+
+    @Benchmark
+    public void interfaceProjection(Blackhole bh) {  // 생성된 UserNameOnlyImpl (프록시 없음)
+        readOnlyTransaction.executeWithoutResult(status -> {
+            for (UserNameOnly projection : memberRepository.findProjectionsInterfaceByUsername(USERNAME)) {
+                bh.consume(projection.getUsername());
+            }
+        });
+    }
+
+    @Benchmark
+    public void nestedClosedProjectionGenerated(Blackhole bh) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            for (NestedClosedProjections projection : memberRepository.findNestedProjectionsByUsername(USERNAME)) {
+                bh.consume(projection.getUsername());
+                bh.consume(projection.getTeam().getName());
+            }
+        });
+    }
+
+    @Benchmark
+    public void dynamicClassProjection(Blackhole bh) {  // 타입별로 캐시한 JPQL + 생성자 MethodHandle
+        readOnlyTransaction.executeWithoutResult(status -> {
+            for (UsernameOnlyDto dto : memberRepository.findProjectionsClassByUsername(USERNAME, UsernameOnlyDto.class)) {
+                bh.consume(dto.getUsername());
+            }
+        });
+    }
+
+    @Benchmark
+    public void constructorExpression(Blackhole bh) {  // dynamicClassProjection 과 같은 결과를 직접 작성한 select new
+        readOnlyTransaction.executeWithoutResult(status -> {
+            for (UsernameOnlyDto dto : memberRepository.findUsernameOnlyDtoByUsername(USERNAME)) {
+                bh.consume(dto.getUsername());
+            }
+        });
+    }
+
+    @Benchmark
+    public void nestedClosedProjection(Blackhole bh) {  // 동적 프로젝션 (생성된 NestedClosedProjectionsImpl 을 MethodHandle 로 생성)
+        readOnlyTransaction.executeWithoutResult(status -> {
+            for (NestedClosedProjections projection : memberRepository.findProjectionsClassByUsername(USERNAME, NestedClosedProjections.class)) {
+                bh.consume(projection.getUsername());
+                bh.consume(projection.getTeam().getName());
+            }
+        });
+    }
+
+    @Benchmark
+    public void dtoProjection(Blackhole bh) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            for (MemberDto dto : memberRepository.findMemberDto()) {
+                bh.consume(dto.getUsername());
+                bh.consume(dto.getTeamName());
+            }
+        });
+    }
+
+    private void consumeMembers(List<Member> members, Blackhole bh) {
+        for (Member member : members) {
+            bh.consume(member.getUsername());
+            bh.consume(member.getTeam().getName());
+        }
+    }
+}
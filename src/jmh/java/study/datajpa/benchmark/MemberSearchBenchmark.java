@@ -0,0 +1,84 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.MemberSearchCondition;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+///members/filter 검색: Specification(매번 Criteria 생성 + SQL 변환) vs 조건 형태별로 캐시한 JPQL(플랜 캐시 재사용)
+//검색 결과는 몇 건뿐이라 조회 비용보다 쿼리 생성/변환 비용의 차이가 드러난다.
+//호출마다 팀 이름, 회원 이름 값을 바꿔서 같은 형태에 다른 파라미터가 바인딩되게 한다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MemberSearchBenchmark {
+
+    private static final int TEAM_COUNT = 10;
+    private static final int USERNAME_COUNT = 100;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    TransactionTemplate readOnlyTransaction;
+    MemberSearchCondition[] conditions;
+    int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        List<Team> teams = context.getBean(TeamRepository.class).saveAll(
+                IntStream.range(0, TEAM_COUNT).mapToObj(i -> new Team("team" + i)).toList());
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            members.add(new Member("search" + (i % USERNAME_COUNT), i, teams.get(i % TEAM_COUNT)));
+        }
+        memberRepository.saveAllBatched(members, 1000);
+
+        conditions = IntStream.range(0, USERNAME_COUNT)
+                .mapToObj(i -> new MemberSearchCondition("team" + (i % TEAM_COUNT), "search" + i))
+                .toArray(MemberSearchCondition[]::new);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void specification(Blackhole bh) {
+        MemberSearchCondition condition = nextCondition();
+        readOnlyTransaction.executeWithoutResult(status -> consumeMembers(memberRepository.findAll(condition.toSpecification()), bh));
+    }
+
+    @Benchmark
+    public void cachedShape(Blackhole bh) {
+        MemberSearchCondition condition = nextCondition();
+        readOnlyTransaction.executeWithoutResult(status -> consumeMembers(memberRepository.search(condition), bh));
+    }
+
+    private MemberSearchCondition nextCondition() {
+        MemberSearchCondition condition = conditions[next];
+        next = (next + 1) % conditions.length;
+        return condition;
+    }
+
+    private void consumeMembers(List<Member> members, Blackhole bh) {
+        for (Member member : members) {
+            bh.consume(member.getId());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package study.datajpa.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+//시작 시간 벤치마크 (./gradlew startupBenchmark). JVM 시작부터 첫 요청(/members) 응답까지 걸린 시간을 잰다.
+//JVM 하나를 여러 번 측정하는 JMH 와 달리 CDS, AOT 는 JVM 을 새로 띄울 때만 효과가 있으므로 실행마다 새 프로세스를 띄운다.
+//모든 실행은 인메모리 H2 + ddl-auto=create 로 같은 조건에서 측정하고, 실행 방식마다 한 번 버린 뒤 startup.runs 번 측정한다.
+//CDS 실행은 -Xshare:on 으로 띄워서 아카이브를 사용할 수 없으면 (클래스패스 불일치 등) 측정하지 않고 실패한다.
+public final class StartupBenchmark {
+
+    private static final String MAIN_CLASS = "study.datajpa.DataJpaApplication";
+    private static final String FIRST_REQUEST = "/members?page=1&size=1";
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+    private final String classpath;
+    private final int runs;
+
+    private StartupBenchmark(String classpath, int runs) {
+        this.classpath = classpath;
+        this.runs = runs;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String classpath = System.getProperty("startup.classpath");
+        if (classpath == null) {
+            throw new IllegalStateException("startup.classpath 가 필요합니다. ./gradlew startupBenchmark 로 실행하세요.");
+        }
+        StartupBenchmark benchmark = new StartupBenchmark(classpath, Integer.getInteger("startup.runs", 5));
+
+        List<Variant> variants = new ArrayList<>();
+        variants.add(new Variant("default", List.of(), List.of()));
+        variants.add(new Variant("fast-startup", List.of(), List.of("--spring.profiles.active=fast-startup")));
+        Path cdsArchive = Path.of(System.getProperty("startup.cds-archive", "build/cds/app.jsa"));
+        if (Files.exists(cdsArchive)) {
+            variants.add(new Variant("fast-startup + CDS", List.of("-Xshare:on", "-XX:SharedArchiveFile=" + cdsArchive),
+                    List.of("--spring.profiles.active=fast-startup")));
+        } else {
+            System.out.println(cdsArchive + " 가 없어서 CDS 측정은 건너뜁니다. (./gradlew cdsArchive)");
+        }
+        if (Boolean.getBoolean("startup.aot")) {
+            variants.add(new Variant("fast-startup + CDS + AOT", List.of("-Xshare:on", "-XX:SharedArchiveFile=" + cdsArchive, "-Dspring.aot.enabled=true"),
+                    List.of("--spring.profiles.active=fast-startup")));
+        }
+
+        for (Variant variant : variants) {
+            benchmark.measure(variant);  // 디스크 캐시 등을 채우는 실행은 버린다.
+            long[] millis = new long[benchmark.runs];
+            for (int i = 0; i < millis.length; i++) {
+                millis[i] = benchmark.measure(variant);
+            }
+            Arrays.sort(millis);
+            System.out.printf("%-26s time-to-first-request median %5d ms  min %5d ms  max %5d ms  (%d runs)%n",
+                    variant.name, millis[millis.length / 2], millis[0], millis[millis.length - 1], millis.length);
+        }
+    }
+
+    //프로세스를 띄우고 첫 요청이 200 으로 응답할 때까지 5ms 간격으로 요청한다.
+    private long measure(Variant variant) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(variant.jvmArgs);
+        command.addAll(List.of("-cp", classpath, MAIN_CLASS, "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:startup", "--spring.jpa.hibernate.ddl-auto=create"));
+        command.addAll(variant.args);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + FIRST_REQUEST)).build();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.to(new File(System.getProperty("os.name").startsWith("Windows") ? "NUL" : "/dev/null")))
+                .start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(variant.name + " 실행이 종료되었습니다. exit=" + process.exitValue());
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return Duration.ofNanos(System.nanoTime() - start).toMillis();
+                    }
+                } catch (ConnectException e) {
+                    //아직 포트를 열지 않았다.
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException(variant.name + " 이 " + TIMEOUT + " 안에 응답하지 않았습니다.");
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static final class Variant {
+        final String name;
+        final List<String> jvmArgs;
+        final List<String> args;
+
+        Variant(String name, List<String> jvmArgs, List<String> args) {
+            this.name = name;
+            this.jvmArgs = jvmArgs;
+            this.args = args;
+        }
+    }
+}
@@ -5,8 +5,8 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import study.datajpa.audit.CachingAuditorAware;
 
-import java.util.Optional;
 import java.util.UUID;
 
 @EnableJpaAuditing
@@ -19,7 +19,7 @@ public class DataJpaApplication {
 
 	@Bean
 	public AuditorAware<String> auditorProvider() {
-		return () -> Optional.of(UUID.randomUUID().toString());
+		return new CachingAuditorAware(() -> UUID.randomUUID().toString());  // 엔티티마다가 아니라 요청/트랜잭션당 한 번만 생성
 	}
 
 }
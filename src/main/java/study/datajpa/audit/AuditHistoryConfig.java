@@ -0,0 +1,44 @@
+package study.datajpa.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import javax.sql.DataSource;
+import java.util.Set;
+
+//Member, Team 의 변경 이력을 audit_history 테이블에 비동기로 남긴다. audit.history.enabled=false 면 등록하지 않는다.
+@Configuration
+@ConditionalOnProperty(prefix = "audit.history", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(AuditHistoryProperties.class)
+public class AuditHistoryConfig {
+
+    @Bean
+    public AuditHistoryWriter auditHistoryWriter(DataSource dataSource, ObjectMapper objectMapper, AuditHistoryProperties properties) {
+        return new AuditHistoryWriter(new JdbcTemplate(dataSource), objectMapper, properties);
+    }
+
+    @Bean
+    public AuditHistoryEventListener auditHistoryEventListener(EntityManagerFactory entityManagerFactory,
+                                                               AuditHistoryWriter auditHistoryWriter,
+                                                               AuditorAware<String> auditorProvider) {
+        AuditHistoryEventListener listener = new AuditHistoryEventListener(auditHistoryWriter, auditorProvider, Set.of(Member.class, Team.class));
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        return listener;
+    }
+}
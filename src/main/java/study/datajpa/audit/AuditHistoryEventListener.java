@@ -0,0 +1,99 @@
+package study.datajpa.audit;
+
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+import org.springframework.data.domain.AuditorAware;
+import study.datajpa.entity.AuditAction;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+//커밋된 insert/update/delete 의 변경 전/후 필드 값을 AuditHistoryWriter 로 넘긴다.
+//하이버네이트가 커밋 직후에 호출하므로 롤백된 변경은 남지 않는다. 벌크 연산(update/delete 쿼리)은 이벤트가 없어서 남지 않는다.
+public class AuditHistoryEventListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final AuditHistoryWriter writer;
+    private final AuditorAware<String> auditorAware;
+    private final Set<Class<?>> auditedClasses;
+
+    public AuditHistoryEventListener(AuditHistoryWriter writer, AuditorAware<String> auditorAware, Set<Class<?>> auditedClasses) {
+        this.writer = writer;
+        this.auditorAware = auditorAware;
+        this.auditedClasses = auditedClasses;
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return auditedClasses.contains(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        enqueue(event.getPersister(), event.getId(), AuditAction.INSERT, null, event.getState());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        enqueue(event.getPersister(), event.getId(), AuditAction.UPDATE, event.getOldState(), event.getState());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        enqueue(event.getPersister(), event.getId(), AuditAction.DELETE, event.getDeletedState(), null);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void enqueue(EntityPersister persister, Object id, AuditAction action, Object[] before, Object[] after) {
+        if (!requiresPostCommitHandling(persister)) {
+            return;
+        }
+        writer.enqueue(new AuditRecord(
+                persister.getMappedClass().getSimpleName(),
+                String.valueOf(id),
+                action,
+                snapshot(persister, before),
+                snapshot(persister, after),
+                auditorAware.getCurrentAuditor().orElse(null),
+                LocalDateTime.now()));
+    }
+
+    //JSON 변환은 쓰기 스레드에서 한다. 여기서는 연관 엔티티를 id 로 바꾸고 컬렉션을 빼기만 한다.
+    private Map<String, Object> snapshot(EntityPersister persister, Object[] state) {
+        if (state == null) {
+            return null;
+        }
+        String[] names = persister.getPropertyNames();
+        Type[] types = persister.getPropertyTypes();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            Object value = state[i];
+            if (types[i].isCollectionType()) {
+                continue;
+            }
+            if (types[i].isEntityType() && value != null) {
+                value = persister.getFactory().getPersistenceUnitUtil().getIdentifier(value);
+            }
+            snapshot.put(names[i], value);
+        }
+        return snapshot;
+    }
+}
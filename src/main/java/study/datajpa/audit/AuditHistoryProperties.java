@@ -0,0 +1,16 @@
+package study.datajpa.audit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "audit.history")
+public class AuditHistoryProperties {
+
+    private boolean enabled = true;
+    private int queueCapacity = 10_000;
+    private int batchSize = 100;
+    private long pollTimeoutMillis = 200;
+}
@@ -0,0 +1,146 @@
+package study.datajpa.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+//변경 이력을 크기가 제한된 큐에 담고, 별도 스레드 하나가 모아서 JDBC batch insert 한다.
+//쓰기 트랜잭션은 큐에 넣기만 하고 기다리지 않는다. 큐가 가득 차면 이력을 버리고 건수만 센다. (이력 때문에 쓰기가 느려지거나 실패하지 않게)
+@Slf4j
+public class AuditHistoryWriter implements SmartLifecycle {
+
+    private static final String INSERT_SQL = "insert into audit_history"
+            + " (entity_name, entity_id, action, before_state, after_state, auditor, changed_at)"
+            + " values (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<AuditRecord> queue;
+    private final int batchSize;
+    private final long pollTimeoutMillis;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public AuditHistoryWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, AuditHistoryProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.batchSize = properties.getBatchSize();
+        this.pollTimeoutMillis = properties.getPollTimeoutMillis();
+    }
+
+    public boolean enqueue(AuditRecord record) {
+        if (queue.offer(record)) {
+            return true;
+        }
+        long count = dropped.incrementAndGet();
+        if (Long.bitCount(count) == 1) {  // 1, 2, 4, 8... 번째에만 로그를 남긴다.
+            log.warn("변경 이력 큐가 가득 차서 이력을 버렸습니다. (누적 {}건) {} {}", count, record.getEntityName(), record.getEntityId());
+        }
+        return false;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::drainLoop, "audit-history-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;  // 큐에 남은 이력은 모두 쓴 뒤에 스레드가 끝난다.
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    private void drainLoop() {
+        List<AuditRecord> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditRecord first = queue.poll(pollTimeoutMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);  // 쌓여 있는 만큼 한 번에 (최대 batchSize)
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<AuditRecord> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, record) -> {
+                ps.setString(1, record.getEntityName());
+                ps.setString(2, record.getEntityId());
+                ps.setString(3, record.getAction().name());
+                ps.setString(4, toJson(record.getBefore()));
+                ps.setString(5, toJson(record.getAfter()));
+                ps.setString(6, record.getAuditor());
+                ps.setTimestamp(7, Timestamp.valueOf(record.getChangedAt()));
+            });
+            written.addAndGet(batch.size());
+        } catch (RuntimeException e) {  // 쓰기 스레드가 죽지 않도록 실패한 batch 는 버리고 계속 진행
+            failed.addAndGet(batch.size());
+            log.error("변경 이력 {}건 저장 실패", batch.size(), e);
+        }
+    }
+
+    private String toJson(Map<String, Object> snapshot) {
+        if (snapshot == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(snapshot);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("변경 이력 직렬화 실패 " + snapshot.keySet(), e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package study.datajpa.audit;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import study.datajpa.entity.AuditAction;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+//쓰기 스레드로 넘기는 변경 이력 한 건. 스냅샷 값은 String, 숫자, 날짜, 연관 엔티티 id 같은 불변 값만 담는다.
+@Getter
+@RequiredArgsConstructor
+public class AuditRecord {
+
+    private final String entityName;
+    private final String entityId;
+    private final AuditAction action;
+    private final Map<String, Object> before;
+    private final Map<String, Object> after;
+    private final String auditor;
+    private final LocalDateTime changedAt;
+}
@@ -0,0 +1,60 @@
+package study.datajpa.audit;
+
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+//등록자/수정자를 엔티티마다 구하지 않고 HTTP 요청당 한 번, 요청 밖에서는 트랜잭션당 한 번만 구한다.
+//요청도 트랜잭션도 없으면 호출할 때마다 구한다.
+public class CachingAuditorAware implements AuditorAware<String> {
+
+    private static final String REQUEST_ATTRIBUTE = CachingAuditorAware.class.getName() + ".AUDITOR";
+    private static final Object TRANSACTION_KEY = new Object();
+
+    private final Supplier<String> resolver;
+
+    public CachingAuditorAware(Supplier<String> resolver) {
+        this.resolver = resolver;
+    }
+
+    @Override
+    public Optional<String> getCurrentAuditor() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            return Optional.of(fromRequest(requestAttributes));
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            return Optional.of(fromTransaction());
+        }
+        return Optional.of(resolver.get());
+    }
+
+    private String fromRequest(RequestAttributes requestAttributes) {
+        String auditor = (String) requestAttributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (auditor == null) {
+            auditor = resolver.get();
+            requestAttributes.setAttribute(REQUEST_ATTRIBUTE, auditor, RequestAttributes.SCOPE_REQUEST);
+        }
+        return auditor;
+    }
+
+    private String fromTransaction() {
+        String auditor = (String) TransactionSynchronizationManager.getResource(TRANSACTION_KEY);
+        if (auditor == null) {
+            auditor = resolver.get();
+            TransactionSynchronizationManager.bindResource(TRANSACTION_KEY, auditor);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_KEY);
+                }
+            });
+        }
+        return auditor;
+    }
+}
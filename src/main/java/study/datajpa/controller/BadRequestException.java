@@ -0,0 +1,13 @@
+package study.datajpa.controller;
+
+//클라이언트가 보낸 값이 잘못되었을 때 (400). 메시지는 응답 바디로 그대로 나가므로 내부 정보를 담지 않는다.
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+
+    public BadRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,26 +1,40 @@
 package study.datajpa.controller;
 
-import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import study.datajpa.dto.CursorPage;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
+import study.datajpa.loader.MemberBatchLoader;
+import study.datajpa.repository.MemberCursor;
+import study.datajpa.repository.MemberKeysetSort;
 import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.MemberSearchCondition;
+import study.datajpa.search.UsernamePrefixIndex;
+import study.datajpa.service.MemberExportService;
+
+import java.io.IOException;
+import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
     private final MemberRepository memberRepository;
+    private final MemberExportService memberExportService;
+    private final UsernamePrefixIndex usernamePrefixIndex;
+    private final MemberBatchLoader memberBatchLoader;
 
     @GetMapping("/members/{id}")
     public String findMember(@PathVariable(value = "id") Long id) {
-        Member member = memberRepository.findById(id).get();
+        //동시에 들어온 다른 요청의 id 와 모아서 in 쿼리 한 번으로 조회한다. (요청마다 findById 를 실행하지 않음)
+        Member member = memberBatchLoader.findById(id).get();
         return member.getUsername();
     }
 
@@ -33,6 +47,8 @@ public class MemberController {
         //주의: 도메인 클래스 컨버터로 엔티티를 파라미터로 받으면, 이 엔티티는 단순 조회용으로만 사용해야 한다.
         //(트랜잭션이 없는 범위에서 엔티티를 조회했으므로, 엔티티를 변경해도 DB에 반영되지 않는다.)
 
+        //이 프로젝트는 Member 전용 컨버터(MemberConverter)가 도메인 클래스 컨버터 대신 MemberBatchLoader 로 조회한다.
+
         return member.getUsername();
     }
 
@@ -58,15 +74,62 @@ public class MemberController {
         //2. spring.data.web.pageable.one-indexed-parameters 를 true 로 설정한다. 그런데 이 방법은
         //web에서 page 파라미터를 -1 처리 할 뿐이다. 따라서 응답값인 Page 에 모두 0 페이지 인덱스를 사용하는 한계가 있다.
 
-        return memberRepository.findAll(pageable)
-                .map(member -> new MemberDto(member.getId(), member.getUsername(), null));  //DTO 반환
+        //엔티티를 조회해서 DTO 로 변환하지 않고, 쿼리에서 바로 DTO 를 생성한다. (teamName 도 함께 조회)
+        return memberRepository.findMemberDtoPage(pageable);  //DTO 반환
     }
 
-    @PostConstruct
-    public void init() {
-        for (int i=0; i < 100; i++) {
-            memberRepository.save(new Member("user"+i,i));
+    @GetMapping("/members/cursor")
+    public CursorPage<MemberDto> listByCursor(@RequestParam(value = "cursor", required = false) String cursor,
+                                              @RequestParam(value = "size", defaultValue = "5") int size,
+                                              @RequestParam(value = "sort", defaultValue = "USERNAME") MemberKeysetSort sort) {
+        //키셋 페이징: 예) /members/cursor?size=5 -> 응답의 nextCursor 로 /members/cursor?cursor={nextCursor}
+        //offset 을 사용하지 않기 때문에 10000 페이지도 1 페이지와 같은 비용으로 조회된다. 대신 임의의 페이지로 바로 이동할 수는 없다.
+        //cursor 에 정렬 조건이 들어있으므로 다음 페이지부터는 sort 파라미터를 무시한다.
+        if (size < 1 || size > 2000) {
+            throw new BadRequestException("size 는 1 ~ 2000 사이여야 합니다. size=" + size);
         }
+        MemberCursor memberCursor;
+        try {
+            memberCursor = cursor == null ? MemberCursor.first(sort) : MemberCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("잘못된 cursor 입니다.", e);
+        }
+
+        return memberRepository.findMemberKeyset(memberCursor, size)
+                .map(member -> new MemberDto(member.getId(), member.getUsername(), null));
+    }
+
+    @GetMapping("/members/filter")
+    public List<MemberDto> filter(MemberSearchCondition condition) {
+        //예) /members/filter?teamName=teamA&username=member1 (비어 있는 조건은 무시)
+        //Specification 대신 조건 형태별로 캐시한 JPQL 로 조회한다. (MemberRepositoryImpl.search)
+        return memberRepository.search(condition).stream()
+                .map(member -> new MemberDto(member.getId(), member.getUsername(), null))
+                .toList();
+    }
+
+    @GetMapping("/members/search")
+    public List<MemberDto> searchByPrefix(@RequestParam("prefix") String prefix,
+                                          @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        //username 자동완성. 예) /members/search?prefix=user1&limit=5
+        //키 입력마다 like 'user1%' 쿼리를 실행하지 않고 메모리 인덱스에서 찾는다. (teamName 은 채우지 않는다.)
+        if (prefix.isEmpty() || limit < 1 || limit > 100) {
+            throw new BadRequestException("prefix 는 비어 있을 수 없고 limit 는 1 ~ 100 사이여야 합니다. limit=" + limit);
+        }
+        return usernamePrefixIndex.search(prefix, limit);
+    }
+
+    @GetMapping(value = "/members/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void export(HttpServletResponse response) throws IOException {
+        //전체 회원을 NDJSON 으로 스트리밍한다. 응답 바디를 직접 쓰기 때문에 반환값이 없다.
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        memberExportService.exportNdjson(response.getOutputStream());
+    }
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(BadRequestException.class)
+    public String badRequest(BadRequestException e) {
+        return e.getMessage();
     }
 }
 
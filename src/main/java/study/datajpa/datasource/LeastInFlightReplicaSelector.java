@@ -0,0 +1,18 @@
+package study.datajpa.datasource;
+
+import java.util.List;
+
+//사용 중인 커넥션이 가장 적은 replica 를 고른다. 느린 replica 에 요청이 쌓이는 것을 피한다.
+public class LeastInFlightReplicaSelector implements ReplicaSelector {
+
+    @Override
+    public ReplicaDataSource select(List<ReplicaDataSource> replicas) {
+        ReplicaDataSource selected = replicas.get(0);
+        for (int i = 1; i < replicas.size(); i++) {
+            if (replicas.get(i).getInFlight() < selected.getInFlight()) {
+                selected = replicas.get(i);
+            }
+        }
+        return selected;
+    }
+}
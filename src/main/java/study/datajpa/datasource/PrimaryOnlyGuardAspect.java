@@ -0,0 +1,37 @@
+package study.datajpa.datasource;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+
+//벌크 수정(@Modifying)과 락 조회(@Lock)는 primary 에서만 의미가 있다.
+//메소드의 @Transactional(기본 REQUIRED)은 바깥 readOnly 트랜잭션에 참여하므로 ReadWriteRoutingDataSource 가 replica 로 보내게 된다.
+//REQUIRES_NEW 로 바꾸면 락이 메소드가 끝나자마자 풀리고 벌크 수정이 바깥 트랜잭션과 따로 커밋되므로, 대신 호출 전에 실패시킨다.
+@Aspect
+@Component
+public class PrimaryOnlyGuardAspect {
+
+    @Before("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public void rejectReadOnlyTransaction(JoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || !isPrimaryOnly(method)) {
+            return;
+        }
+        throw new IllegalTransactionStateException(
+                joinPoint.getSignature().toShortString() + " 는 쓰기/락 메소드이므로 readOnly 트랜잭션 안에서 호출할 수 없습니다.");
+    }
+
+    private static boolean isPrimaryOnly(Method method) {
+        return AnnotatedElementUtils.hasAnnotation(method, Modifying.class)
+                || AnnotatedElementUtils.hasAnnotation(method, Lock.class);
+    }
+}
@@ -0,0 +1,58 @@
+package study.datajpa.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//@Transactional(readOnly = true) 트랜잭션은 replica 로, 그 외(쓰기, 락, 트랜잭션 없음)는 primary 로 보낸다.
+//트랜잭션 시작 시점에는 아직 readOnly 여부가 TransactionSynchronizationManager 에 반영되지 않으므로
+//반드시 LazyConnectionDataSourceProxy 로 감싸서 첫 SQL 실행 시점에 커넥션을 얻도록 해야 한다.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<ReplicaDataSource> replicas;
+    private final ReplicaSelector replicaSelector;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<ReplicaDataSource> replicas, ReplicaSelector replicaSelector) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.replicaSelector = replicaSelector;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        this.replicas.forEach(replica -> targets.put(replica.getName(), replica));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        return replicaSelector.select(replicas).getName();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeIfPossible(primary);
+        for (ReplicaDataSource replica : replicas) {
+            closeIfPossible(replica.getTargetDataSource());
+        }
+    }
+
+    private static void closeIfPossible(DataSource dataSource) throws IOException {
+        if (dataSource instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package study.datajpa.datasource;
+
+import lombok.Getter;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//replica 커넥션 풀. 빌려간 뒤 아직 close 하지 않은 커넥션 수(inFlight)를 센다.
+public class ReplicaDataSource extends DelegatingDataSource {
+
+    @Getter
+    private final String name;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public ReplicaDataSource(String name, DataSource targetDataSource) {
+        super(targetDataSource);
+        this.name = name;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+
+    private Connection track(Connection connection) {
+        inFlight.incrementAndGet();
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && closed.compareAndSet(false, true)) {
+                        inFlight.decrementAndGet();
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
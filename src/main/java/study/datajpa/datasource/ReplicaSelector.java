@@ -0,0 +1,8 @@
+package study.datajpa.datasource;
+
+import java.util.List;
+
+//읽기 전용 트랜잭션이 사용할 replica 를 고른다. (replicas 는 비어있지 않다.)
+public interface ReplicaSelector {
+    ReplicaDataSource select(List<ReplicaDataSource> replicas);
+}
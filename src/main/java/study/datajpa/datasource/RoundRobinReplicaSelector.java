@@ -0,0 +1,14 @@
+package study.datajpa.datasource;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RoundRobinReplicaSelector implements ReplicaSelector {
+
+    private final AtomicInteger counter = new AtomicInteger();
+
+    @Override
+    public ReplicaDataSource select(List<ReplicaDataSource> replicas) {
+        return replicas.get(Math.floorMod(counter.getAndIncrement(), replicas.size()));
+    }
+}
@@ -0,0 +1,66 @@
+package study.datajpa.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+//datasource.routing.enabled=true 이면 스프링 부트 기본 DataSource 대신 읽기/쓰기 분리 DataSource 를 등록한다.
+//primary 는 spring.datasource.*, replica 는 datasource.routing.replicas[*] 설정을 사용한다.
+//커넥션 풀 설정은 스프링 부트와 같이 바인딩한다. primary 는 spring.datasource.hikari.*, replica 는 datasource.routing.replicas[*].hikari.*
+//(DataSource 빈을 따로 등록하면 p6spy 등 DataSource 데코레이터가 풀마다 한 번 더 감싸므로 빈으로 만들지 않고 직접 바인딩한다.)
+//replica 로의 데이터 복제는 DB 가 담당한다. (로컬에서 H2 두 개를 띄우면 복제가 되지 않으므로 조회 결과가 다를 수 있다.)
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+public class RoutingDataSourceConfig implements DisposableBean {
+
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, RoutingDataSourceProperties routingProperties,
+                                 Environment environment) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));  // 예) maximum-pool-size
+
+        List<ReplicaDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < routingProperties.getReplicas().size(); i++) {
+            RoutingDataSourceProperties.Replica replica = routingProperties.getReplicas().get(i);
+            HikariDataSource replicaPool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(dataSourceProperties.getDriverClassName())
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .build();
+            binder.bind("datasource.routing.replicas[" + i + "].hikari", Bindable.ofInstance(replicaPool));
+            replicas.add(new ReplicaDataSource("replica-" + i, replicaPool));
+        }
+
+        routingDataSource = new ReadWriteRoutingDataSource(primary, replicas, routingProperties.getStrategy().createSelector());
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);  // 커넥션 획득을 첫 SQL 실행 시점까지 미룬다.
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (routingDataSource != null) {
+            routingDataSource.close();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package study.datajpa.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datasource.routing")
+public class RoutingDataSourceProperties {
+
+    private boolean enabled;
+    private Strategy strategy = Strategy.ROUND_ROBIN;
+    private List<Replica> replicas = new ArrayList<>();
+
+    public enum Strategy {
+        ROUND_ROBIN, LEAST_IN_FLIGHT;
+
+        ReplicaSelector createSelector() {
+            return switch (this) {
+                case ROUND_ROBIN -> new RoundRobinReplicaSelector();
+                case LEAST_IN_FLIGHT -> new LeastInFlightReplicaSelector();
+            };
+        }
+    }
+
+    //커넥션 풀 설정은 datasource.routing.replicas[*].hikari.* (HikariDataSource 프로퍼티) 로 RoutingDataSourceConfig 가 바인딩한다.
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
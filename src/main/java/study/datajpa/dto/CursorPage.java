@@ -0,0 +1,28 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+//키셋 페이징 응답
+//Page 와 달리 totalCount, 페이지 번호가 없다. 다음 페이지는 nextCursor 로만 요청할 수 있다.
+@Getter
+public class CursorPage<T> {
+
+    private final List<T> content;
+    private final String nextCursor;  // 마지막 페이지면 null
+
+    public CursorPage(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+
+    public <U> CursorPage<U> map(Function<? super T, ? extends U> converter) {
+        return new CursorPage<>(content.stream().<U>map(converter).toList(), nextCursor);
+    }
+}
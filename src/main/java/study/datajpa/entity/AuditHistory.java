@@ -0,0 +1,40 @@
+package study.datajpa.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+//엔티티 변경 이력. 조회 전용이며 저장은 AuditHistoryWriter 가 JDBC batch 로 한다. (저장 자체가 다시 이력을 남기지 않도록)
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString(of = {"id", "entityName", "entityId", "action", "auditor"})
+@Table(indexes = @Index(name = "idx_audit_history_entity", columnList = "entity_name, entity_id"))
+public class AuditHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "audit_history_id")
+    private Long id;
+
+    private String entityName;
+
+    private String entityId;
+
+    @Enumerated(EnumType.STRING)
+    private AuditAction action;
+
+    @Column(length = 4000)
+    private String beforeState;  // 변경 전 필드 값 (JSON). INSERT 는 null
+
+    @Column(length = 4000)
+    private String afterState;  // 변경 후 필드 값 (JSON). DELETE 는 null
+
+    private String auditor;
+
+    private LocalDateTime changedAt;
+}
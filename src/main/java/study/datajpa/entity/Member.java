@@ -2,6 +2,7 @@ package study.datajpa.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import study.datajpa.search.UsernameIndexListener;
 
 @Entity
 @Getter
@@ -13,10 +14,13 @@ import lombok.*;
         query = "select m from Member m where m.username = :username"
 )
 @NamedEntityGraph(name = "Member.all", attributeNodes = @NamedAttributeNode("team"))
+@Table(indexes = @Index(name = "idx_member_username_id", columnList = "username, member_id"))  // 키셋 페이징 (username, member_id) 정렬/탐색용
+@EntityListeners(UsernameIndexListener.class)  // username 자동완성 인덱스 갱신
 public class Member extends /*JpaBaseEntity*/ BaseEntity {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50)  // 시퀀스를 한 번 호출해서 50개의 id 를 메모리에서 할당 (pooled)
     @Column(name = "member_id")
     private Long id;
 
@@ -24,6 +28,10 @@ public class Member extends /*JpaBaseEntity*/ BaseEntity {
 
     private int age;
 
+    @Version  // 낙관적 락. 수정 시 where version = ? 로 검사하고, 다른 트랜잭션이 먼저 수정했으면 예외 (행 락을 잡지 않는다)
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "team_id")
     private Team team;
@@ -2,6 +2,9 @@ package study.datajpa.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OptimisticLock;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -11,15 +14,23 @@ import java.util.List;
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id","name"})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)  // 2차 캐시. 자주 조회되지만 거의 변경되지 않는다. 엔티티 변경/삭제 시 하이버네이트가 캐시도 갱신한다.
 public class Team {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq_generator")
+    @SequenceGenerator(name = "team_seq_generator", sequenceName = "team_seq", allocationSize = 50)
     @Column(name = "team_id")
     private Long id;
 
     private String name;
 
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
+    //컬렉션은 캐시하지 않는다. 컬렉션 캐시는 회원 id 목록만 저장하므로 Member 가 캐시 대상이 아니면 캐시 hit 시 회원을 한 건씩 조회(N+1)한다.
+    @OptimisticLock(excluded = true)  // 회원 추가/제거로 팀의 version 이 올라가지 않게 한다. (팀 행에 대한 경합 방지)
     @OneToMany(mappedBy = "team")
     private List<Member> members = new ArrayList<>();
 
@@ -0,0 +1,175 @@
+package study.datajpa.loader;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+//동시에 들어온 findById 요청을 짧은 구간(window) 동안 모아서 findAllById (in 쿼리) 한 번으로 조회한다. (DataLoader 방식)
+//- 같은 id 를 조회 중이면 새로 조회하지 않고 진행 중인 결과를 함께 기다린다. (single-flight)
+//- 모인 id 가 maxBatchSize 가 되면 구간이 끝나기 전에 바로 조회한다.
+//조회 결과는 다른 스레드의 영속성 컨텍스트에서 읽은 준영속 엔티티다. 단순 조회용으로만 사용하고, 트랜잭션 안에서는 리포지토리를 직접 사용한다.
+//findById 는 timeoutMillis 까지만 기다린다. 조회 하나가 멈춰도 요청 스레드(Tomcat)가 무한히 묶이지 않는다.
+@Slf4j
+@Component
+public class MemberBatchLoader {
+
+    private final MemberRepository memberRepository;
+    private final long windowMicros;
+    private final int maxBatchSize;
+    private final long timeoutMillis;
+    private final ScheduledExecutorService executor;
+
+    private final Map<Long, CompletableFuture<Optional<Member>>> inFlight = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private List<Long> pending = new ArrayList<>();  // lock 으로 보호
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    public MemberBatchLoader(MemberRepository memberRepository,
+                             @Value("${member.batch-loader.window-micros:2000}") long windowMicros,
+                             @Value("${member.batch-loader.max-batch-size:100}") int maxBatchSize,
+                             @Value("${member.batch-loader.threads:2}") int threads,
+                             @Value("${member.batch-loader.timeout-millis:1000}") long timeoutMillis) {
+        this.memberRepository = memberRepository;
+        this.windowMicros = windowMicros;
+        this.maxBatchSize = maxBatchSize;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "member-batch-loader-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public CompletableFuture<Optional<Member>> load(Long id) {
+        requests.increment();
+        CompletableFuture<Optional<Member>> future = new CompletableFuture<>();
+        CompletableFuture<Optional<Member>> existing = inFlight.putIfAbsent(id, future);
+        if (existing != null) {
+            return existing;
+        }
+
+        //실행기에 넘기지 못하면 (shutdown 후 RejectedExecutionException 등) 진행 중 목록과 대기 목록에서 빼고 실패로 완료한다.
+        //남겨두면 이후 같은 id 요청이 영원히 완료되지 않는 future 를 기다린다.
+        List<Long> full = null;
+        synchronized (lock) {
+            pending.add(id);
+            if (pending.size() >= maxBatchSize) {
+                full = takePending();
+            } else if (pending.size() == 1) {  // 구간의 첫 id 가 타이머를 건다.
+                try {
+                    executor.schedule(this::flush, windowMicros, TimeUnit.MICROSECONDS);
+                } catch (RuntimeException e) {
+                    fail(takePending(), e);
+                }
+            }
+        }
+        if (full != null) {
+            List<Long> ids = full;
+            try {
+                executor.execute(() -> dispatch(ids));
+            } catch (RuntimeException e) {
+                fail(ids, e);
+            }
+        }
+        return future;
+    }
+
+    //load 를 timeoutMillis 까지 기다린다. 조회 예외는 ExecutionException 을 벗겨서 그대로 던진다.
+    //시간을 넘기면 QueryTimeoutException. 진행 중인 조회는 취소하지 않으므로 같은 id 를 기다리는 다른 요청에는 영향이 없다.
+    public Optional<Member> findById(Long id) {
+        try {
+            return load(id).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("회원 조회가 " + timeoutMillis + "ms 안에 끝나지 않았습니다. id=" + id, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("회원 조회를 기다리는 중 인터럽트되었습니다. id=" + id, e);
+        }
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    //크기 때문에 먼저 조회한 뒤에 늦게 실행된 타이머는 다음 구간 id 를 조금 일찍 조회할 뿐이다.
+    private void flush() {
+        List<Long> ids;
+        synchronized (lock) {
+            ids = takePending();
+        }
+        if (!ids.isEmpty()) {
+            dispatch(ids);
+        }
+    }
+
+    private List<Long> takePending() {
+        List<Long> ids = pending;
+        pending = new ArrayList<>();
+        return ids;
+    }
+
+    private void dispatch(List<Long> ids) {
+        batches.increment();
+        Map<Long, Member> found = new HashMap<>();
+        try {
+            for (Member member : memberRepository.findAllById(ids)) {
+                found.put(member.getId(), member);
+            }
+        } catch (RuntimeException e) {
+            log.warn("회원 {}건 일괄 조회 실패", ids.size(), e);
+            fail(ids, e);
+            return;
+        }
+        for (Long id : ids) {
+            complete(id).complete(Optional.ofNullable(found.get(id)));
+        }
+    }
+
+    private void fail(List<Long> ids, Throwable e) {
+        for (Long id : ids) {
+            complete(id).completeExceptionally(e);
+        }
+    }
+
+    //완료하기 전에 진행 중 목록에서 빼서, 이후 요청은 새로 조회한다.
+    private CompletableFuture<Optional<Member>> complete(Long id) {
+        return inFlight.remove(id);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
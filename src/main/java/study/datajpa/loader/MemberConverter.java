@@ -0,0 +1,23 @@
+package study.datajpa.loader;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Member;
+
+//@PathVariable("id") Member 를 도메인 클래스 컨버터 대신 MemberBatchLoader 로 조회한다.
+//String -> Member 전용 컨버터가 스프링 데이터의 DomainClassConverter(Object -> Object) 보다 먼저 선택된다. (스프링 부트가 Converter 빈을 MVC 에 등록)
+@Component
+@RequiredArgsConstructor
+public class MemberConverter implements Converter<String, Member> {
+
+    private final MemberBatchLoader memberBatchLoader;
+
+    @Override
+    public Member convert(String source) {
+        if (source.isBlank()) {
+            return null;
+        }
+        return memberBatchLoader.findById(Long.valueOf(source.trim())).orElse(null);  // 없으면 null (DomainClassConverter 와 같다.)
+    }
+}
@@ -0,0 +1,168 @@
+package study.datajpa.monitoring;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+//p6spy 로그 대신 사용하는 SQL 로그. 실행 스레드에서는 거르기(기준 시간, 1/N 샘플링) + 바인딩 값이 들어간 SQL 만들기 + 큐에 넣기만 한다.
+//포맷과 로그 출력은 별도 스레드 하나가 한다. 큐(크기가 정해진 배열 링 버퍼)가 가득 차면 기다리지 않고 버린 건수만 센다.
+//실패한 SQL 은 샘플링과 기준 시간에 관계없이 남긴다.
+@Slf4j
+public class AsyncSqlLogger extends JdbcEventListener implements SmartLifecycle {
+
+    private static final Logger SQL_LOG = LoggerFactory.getLogger("p6spy");  // p6spy Slf4JLogger 와 같은 로거 이름
+
+    private final Consumer<String> sink;
+    private final BlockingQueue<Entry> queue;
+    private final long thresholdNanos;
+    private final int sampleRate;
+    private final int batchSize;
+    private final long pollTimeoutMillis;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public AsyncSqlLogger(SqlLogProperties properties) {
+        this(properties, SQL_LOG::info);
+    }
+
+    AsyncSqlLogger(SqlLogProperties properties, Consumer<String> sink) {
+        this.sink = sink;
+        this.queue = new ArrayBlockingQueue<>(properties.getBufferSize());
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(properties.getThresholdMillis());
+        this.sampleRate = Math.max(1, properties.getSampleRate());
+        this.batchSize = properties.getBatchSize();
+        this.pollTimeoutMillis = properties.getPollTimeoutMillis();
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        boolean failed = e != null;
+        if (accept(timeElapsedNanos, failed)) {  // 바인딩 값을 채운 SQL 은 남길 때만 만든다.
+            enqueue(new Entry(System.currentTimeMillis(), statementInformation.getConnectionInformation().getConnectionId(),
+                    timeElapsedNanos, statementInformation.getSqlWithValues(), failed));
+        }
+    }
+
+    boolean accept(long elapsedNanos, boolean failed) {
+        if (failed) {
+            return true;
+        }
+        if (elapsedNanos < thresholdNanos) {
+            return false;
+        }
+        return sampleRate == 1 || sequence.getAndIncrement() % sampleRate == 0;
+    }
+
+    boolean enqueue(Entry entry) {
+        if (queue.offer(entry)) {
+            return true;
+        }
+        long count = dropped.incrementAndGet();
+        if (Long.bitCount(count) == 1) {  // 1, 2, 4, 8... 번째에만 로그를 남긴다.
+            log.warn("SQL 로그 버퍼가 가득 차서 로그를 버렸습니다. (누적 {}건)", count);
+        }
+        return false;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::drainLoop, "async-sql-logger");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;  // 버퍼에 남은 로그는 모두 쓴 뒤에 스레드가 끝난다.
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void drainLoop() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(pollTimeoutMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                for (Entry entry : batch) {
+                    write(entry);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(Entry entry) {
+        try {
+            sink.accept(entry.format());
+            written.incrementAndGet();
+        } catch (RuntimeException e) {  // 로그 스레드가 죽지 않도록 계속 진행
+            log.error("SQL 로그 출력 실패", e);
+        }
+    }
+
+    static final class Entry {
+        private final long executedAtMillis;
+        private final int connectionId;
+        private final long elapsedNanos;
+        private final String sql;
+        private final boolean failed;
+
+        Entry(long executedAtMillis, int connectionId, long elapsedNanos, String sql, boolean failed) {
+            this.executedAtMillis = executedAtMillis;
+            this.connectionId = connectionId;
+            this.elapsedNanos = elapsedNanos;
+            this.sql = sql;
+            this.failed = failed;
+        }
+
+        //예) 2024-01-01T00:00:00Z | 3ms | connection 5 | select ... (실패했으면 | failed 가 붙는다.)
+        String format() {
+            return Instant.ofEpochMilli(executedAtMillis) + " | " + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + "ms"
+                    + " | connection " + connectionId + (failed ? " | failed" : "") + " | " + sql;
+        }
+    }
+}
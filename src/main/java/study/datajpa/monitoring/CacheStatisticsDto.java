@@ -0,0 +1,24 @@
+package study.datajpa.monitoring;
+
+import lombok.Getter;
+
+@Getter
+public class CacheStatisticsDto {
+    private final String name;
+    private final long hits;
+    private final long misses;
+    private final float hitPercentage;
+    private final long puts;
+    private final long removals;
+    private final long evictions;  // 최대 크기 초과, TTL 만료로 제거된 건수
+
+    public CacheStatisticsDto(String name, long hits, long misses, float hitPercentage, long puts, long removals, long evictions) {
+        this.name = name;
+        this.hits = hits;
+        this.misses = misses;
+        this.hitPercentage = hitPercentage;
+        this.puts = puts;
+        this.removals = removals;
+        this.evictions = evictions;
+    }
+}
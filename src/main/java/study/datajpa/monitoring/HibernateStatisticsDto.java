@@ -0,0 +1,53 @@
+package study.datajpa.monitoring;
+
+import lombok.Getter;
+import org.hibernate.stat.Statistics;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+//하이버네이트 Statistics 요약. 통계가 꺼져 있으면(enabled = false) 모든 값이 0 이다.
+@Getter
+public class HibernateStatisticsDto {
+    private final boolean enabled;
+    private final long sessionOpenCount;
+    private final long prepareStatementCount;
+    private final long flushCount;
+    private final long entityLoadCount;  // DB 에서 읽어서 만든 엔티티 수
+    private final long entityFetchCount;  // 지연 로딩 프록시/연관을 초기화하려고 추가로 조회한 수. 크면 N+1 의심
+    private final long collectionLoadCount;
+    private final long collectionFetchCount;
+    private final long queryExecutionCount;
+    private final long queryExecutionMaxTime;
+    private final String queryExecutionMaxTimeQuery;
+    private final double secondLevelCacheHitRatio;  // 0 ~ 1. 조회가 없었으면 0
+    private final double queryCacheHitRatio;
+    private final double queryPlanCacheHitRatio;
+    private final List<QueryStatisticsDto> queries;  // totalTime 내림차순
+
+    public HibernateStatisticsDto(Statistics statistics) {
+        this.enabled = statistics.isStatisticsEnabled();
+        this.sessionOpenCount = statistics.getSessionOpenCount();
+        this.prepareStatementCount = statistics.getPrepareStatementCount();
+        this.flushCount = statistics.getFlushCount();
+        this.entityLoadCount = statistics.getEntityLoadCount();
+        this.entityFetchCount = statistics.getEntityFetchCount();
+        this.collectionLoadCount = statistics.getCollectionLoadCount();
+        this.collectionFetchCount = statistics.getCollectionFetchCount();
+        this.queryExecutionCount = statistics.getQueryExecutionCount();
+        this.queryExecutionMaxTime = statistics.getQueryExecutionMaxTime();
+        this.queryExecutionMaxTimeQuery = statistics.getQueryExecutionMaxTimeQueryString();
+        this.secondLevelCacheHitRatio = ratio(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount());
+        this.queryCacheHitRatio = ratio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount());
+        this.queryPlanCacheHitRatio = ratio(statistics.getQueryPlanCacheHitCount(), statistics.getQueryPlanCacheMissCount());
+        this.queries = Arrays.stream(statistics.getQueries())
+                .map(query -> new QueryStatisticsDto(query, statistics.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong(QueryStatisticsDto::getTotalTime).reversed())
+                .toList();
+    }
+
+    private static double ratio(long hits, long misses) {
+        return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+}
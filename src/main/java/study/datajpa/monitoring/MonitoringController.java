@@ -0,0 +1,108 @@
+package study.datajpa.monitoring;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.spi.QueryInterpretationCache;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.repository.ShapeQueryCache;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class MonitoringController {
+
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    private final RepositoryMetricsAspect repositoryMetricsAspect;
+    private final ShapeQueryCache shapeQueryCache;
+    private final EntityManagerFactory entityManagerFactory;
+    private final SlowQueryListener slowQueryListener;
+
+    @GetMapping("/monitoring/repositories")
+    public List<RepositoryMethodStatisticsDto> repositories() {
+        //리포지토리 메소드별 호출 수, 예외 수, 반환 건수, 지연 시간 분포(p50/p99/p999/max, 마이크로초)
+        return repositoryMetricsAspect.statistics();
+    }
+
+    @GetMapping("/monitoring/caches")
+    public List<CacheStatisticsDto> caches() throws JMException {
+        //JCache 표준 통계 MBean 을 읽는다. (application.conf 의 monitoring.statistics = true 인 캐시만 등록된다.)
+        List<CacheStatisticsDto> result = new ArrayList<>();
+        for (ObjectName name : mBeanServer.queryNames(new ObjectName("javax.cache:type=CacheStatistics,*"), null)) {
+            result.add(new CacheStatisticsDto(
+                    name.getKeyProperty("Cache"),
+                    (Long) mBeanServer.getAttribute(name, "CacheHits"),
+                    (Long) mBeanServer.getAttribute(name, "CacheMisses"),
+                    (Float) mBeanServer.getAttribute(name, "CacheHitPercentage"),
+                    (Long) mBeanServer.getAttribute(name, "CachePuts"),
+                    (Long) mBeanServer.getAttribute(name, "CacheRemovals"),
+                    (Long) mBeanServer.getAttribute(name, "CacheEvictions")));
+        }
+        result.sort(Comparator.comparing(CacheStatisticsDto::getName));
+        return result;
+    }
+
+    @GetMapping("/monitoring/query-plans")
+    public List<QueryPlanCacheStatisticsDto> queryPlans() {
+        //shape: 검색 조건 형태 -> JPQL 캐시, hibernate: JPQL -> 쿼리 플랜 캐시
+        //하이버네이트 적중/실패 수는 hibernate.generate_statistics=true 일 때만 집계된다. (크기는 항상)
+        //size 가 maxSize 에 가까우면 자주 쓰는 플랜도 밀려나므로 in 절 목록처럼 문자열이 계속 달라지는 쿼리가 없는지 확인한다.
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Statistics statistics = sessionFactory.getStatistics();
+        QueryInterpretationCache interpretationCache = sessionFactory.getQueryEngine().getInterpretationCache();
+        return List.of(
+                new QueryPlanCacheStatisticsDto("shape", shapeQueryCache.size(), -1,
+                        shapeQueryCache.getHitCount(), shapeQueryCache.getMissCount()),
+                new QueryPlanCacheStatisticsDto("hibernate", interpretationCache.getNumberOfCachedQueryPlans(), planCacheMaxSize(sessionFactory),
+                        statistics.getQueryPlanCacheHitCount(), statistics.getQueryPlanCacheMissCount()));
+    }
+
+    @GetMapping("/monitoring/hibernate")
+    public HibernateStatisticsDto hibernate() {
+        //쿼리별 실행 수, 평균/최대 시간, 반환 건수 + 엔티티 로딩, flush 수, 2차 캐시/쿼리 캐시 적중률
+        //통계는 monitoring.hibernate-statistics.enabled (hibernate.generate_statistics) 또는 POST /monitoring/hibernate?enabled=true 로 켠다.
+        return new HibernateStatisticsDto(hibernateStatistics());
+    }
+
+    @PostMapping("/monitoring/hibernate")
+    public HibernateStatisticsDto toggleHibernate(@RequestParam("enabled") boolean enabled) {
+        //재시작 없이 잠깐 켜서 집계하고 다시 끌 수 있다. (켜져 있는 동안은 쿼리마다 통계 기록 비용이 든다.)
+        Statistics statistics = hibernateStatistics();
+        statistics.setStatisticsEnabled(enabled);
+        return new HibernateStatisticsDto(statistics);
+    }
+
+    @DeleteMapping("/monitoring/hibernate")
+    public void clearHibernate() {
+        hibernateStatistics().clear();
+    }
+
+    @GetMapping("/monitoring/slow-queries")
+    public List<SlowQueryDto> slowQueries() {
+        //monitoring.slow-query.threshold-ms 이상 걸린 최근 SQL 과 실행한 리포지토리 메소드 (최신순)
+        return slowQueryListener.recent();
+    }
+
+    //설정하지 않았으면 0 (하이버네이트 6 은 플랜 캐시를 사용하지 않는다.)
+    private static int planCacheMaxSize(SessionFactoryImplementor sessionFactory) {
+        Object maxSize = sessionFactory.getProperties().get(AvailableSettings.QUERY_PLAN_CACHE_MAX_SIZE);
+        return maxSize == null ? 0 : Integer.parseInt(maxSize.toString());
+    }
+
+    private Statistics hibernateStatistics() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class).getStatistics();
+    }
+}
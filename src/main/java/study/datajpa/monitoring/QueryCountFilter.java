@@ -0,0 +1,32 @@
+package study.datajpa.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+//HTTP 요청 하나에서 실행된 SQL 을 세고, N+1 이 의심되면 로그를 남긴다.
+//OSIV 가 켜져 있으면 컨트롤러에서 지연 로딩된 SQL 까지 포함된다.
+@Component
+@RequiredArgsConstructor
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private final QueryCountListener queryCountListener;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryScope scope = QueryCounter.open(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            scope.close();
+            queryCountListener.report(scope);
+        }
+    }
+}
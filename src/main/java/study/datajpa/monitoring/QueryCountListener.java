@@ -0,0 +1,67 @@
+package study.datajpa.monitoring;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+
+//p6spy 가 감싼 DataSource 에서 SQL 이 실행될 때마다 호출된다. (JdbcEventListener 빈은 p6spy-spring-boot-starter 가 자동 등록)
+//HTTP 요청 구간은 QueryCountFilter 가 열고, 트랜잭션 구간은 트랜잭션 안에서 첫 SQL 이 실행될 때 여기서 연다.
+@Slf4j
+@Component
+public class QueryCountListener extends JdbcEventListener {
+
+    private static final Object TRANSACTION_SCOPE_KEY = new Object();
+
+    private final int nPlusOneThreshold;
+
+    public QueryCountListener(@Value("${monitoring.n-plus-one.threshold:5}") int nPlusOneThreshold) {
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(TRANSACTION_SCOPE_KEY)) {
+            openTransactionScope();
+        }
+        QueryCounter.record(statementInformation.getSql());
+    }
+
+    private void openTransactionScope() {
+        String name = "transaction " + TransactionSynchronizationManager.getCurrentTransactionName();
+        QueryScope scope = QueryCounter.open(name);
+        TransactionSynchronizationManager.bindResource(TRANSACTION_SCOPE_KEY, scope);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {  // REQUIRES_NEW 로 시작한 내부 트랜잭션은 자신의 구간을 따로 연다.
+                TransactionSynchronizationManager.unbindResource(TRANSACTION_SCOPE_KEY);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(TRANSACTION_SCOPE_KEY, scope);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_SCOPE_KEY);
+                scope.close();
+                report(scope);
+            }
+        });
+    }
+
+    void report(QueryScope scope) {
+        if (!scope.getNPlusOneSuspects(nPlusOneThreshold).isEmpty()) {
+            log.warn("N+1 의심 (같은 형태의 SQL 이 {}번 이상 실행) {}", nPlusOneThreshold, scope);
+        } else if (log.isDebugEnabled()) {
+            log.debug("{}", scope);
+        }
+    }
+}
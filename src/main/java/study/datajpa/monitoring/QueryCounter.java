@@ -0,0 +1,72 @@
+package study.datajpa.monitoring;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.regex.Pattern;
+
+//스레드별로 열려있는 QueryScope 에 실행된 SQL 을 기록한다. (QueryCountListener 가 호출)
+//측정 구간은 중첩될 수 있고, 열려있는 모든 구간에 함께 기록된다. 예) HTTP 요청 > 트랜잭션
+//
+//사용 예)
+//try (QueryScope scope = QueryCounter.open("findMemberCustom")) {
+//    memberRepository.findMemberCustom().forEach(m -> m.getTeam().getName());
+//    System.out.println(scope);
+//}
+public final class QueryCounter {
+
+    private static final ThreadLocal<Deque<QueryScope>> SCOPES = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private QueryCounter() {
+    }
+
+    public static QueryScope open(String name) {
+        Deque<QueryScope> scopes = SCOPES.get();
+        if (scopes == null) {
+            scopes = new ArrayDeque<>();
+            SCOPES.set(scopes);
+        }
+        QueryScope scope = new QueryScope(name);
+        scopes.push(scope);
+        return scope;
+    }
+
+    static void close(QueryScope scope) {
+        Deque<QueryScope> scopes = SCOPES.get();
+        if (scopes == null) {
+            return;
+        }
+        scopes.remove(scope);
+        if (scopes.isEmpty()) {
+            SCOPES.remove();
+        }
+    }
+
+    static boolean isActive() {
+        return SCOPES.get() != null;
+    }
+
+    static void record(String sql) {
+        Deque<QueryScope> scopes = SCOPES.get();
+        if (scopes == null || sql == null) {
+            return;  // 측정 중이 아니면 정규화 비용도 쓰지 않는다.
+        }
+        String shape = normalize(sql);
+        for (QueryScope scope : scopes) {
+            scope.record(shape);
+        }
+    }
+
+    //파라미터 값, 공백, IN 절 파라미터 개수만 다른 SQL 은 같은 형태로 본다.
+    static String normalize(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+        shape = IN_LIST.matcher(shape).replaceAll("(?...)");
+        return shape.toLowerCase();
+    }
+}
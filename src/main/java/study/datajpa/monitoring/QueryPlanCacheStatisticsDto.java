@@ -0,0 +1,22 @@
+package study.datajpa.monitoring;
+
+import lombok.Getter;
+
+@Getter
+public class QueryPlanCacheStatisticsDto {
+    private final String name;
+    private final int size;  // 캐시된 항목 수
+    private final int maxSize;  // 최대 항목 수. 제한이 없으면 -1
+    private final long hits;
+    private final long misses;
+    private final double hitRatio;  // 0 ~ 1. 조회가 없었으면 0
+
+    public QueryPlanCacheStatisticsDto(String name, int size, int maxSize, long hits, long misses) {
+        this.name = name;
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.hitRatio = hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+}
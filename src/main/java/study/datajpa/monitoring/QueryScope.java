@@ -0,0 +1,53 @@
+package study.datajpa.monitoring;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+//하나의 측정 구간(HTTP 요청, 트랜잭션, 테스트 ...) 동안 실행된 SQL 을 정규화된 형태(shape)별로 센다.
+//같은 스레드에서만 사용한다.
+public class QueryScope implements AutoCloseable {
+
+    @Getter
+    private final String name;
+    private final Map<String, Integer> countsByShape = new LinkedHashMap<>();
+    @Getter
+    private int count;
+
+    QueryScope(String name) {
+        this.name = name;
+    }
+
+    void record(String shape) {
+        count++;
+        countsByShape.merge(shape, 1, Integer::sum);
+    }
+
+    public Map<String, Integer> getCountsByShape() {
+        return Collections.unmodifiableMap(countsByShape);
+    }
+
+    //같은 형태의 SQL 이 threshold 번 이상 반복되면 N+1 으로 의심한다.
+    //예) 회원 목록을 조회한 뒤 회원마다 팀을 쿼리로 조회 -> select ... from team where team_id=? 가 회원 수만큼 반복
+    //(지연 로딩 연관은 default_batch_fetch_size 로 in 쿼리 한 번에 조회되므로 반복되지 않는다.)
+    public Map<String, Integer> getNPlusOneSuspects(int threshold) {
+        return countsByShape.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    @Override
+    public void close() {
+        QueryCounter.close(this);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(name).append(": ").append(count).append(" queries");
+        countsByShape.forEach((shape, shapeCount) -> sb.append("\n  ").append(shapeCount).append(" x ").append(shape));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,28 @@
+package study.datajpa.monitoring;
+
+import lombok.Getter;
+import org.hibernate.stat.QueryStatistics;
+
+//하이버네이트가 집계한 쿼리(JPQL/네이티브 SQL 문자열) 하나의 실행 통계. 시간 단위는 밀리초
+@Getter
+public class QueryStatisticsDto {
+    private final String query;
+    private final long executionCount;
+    private final long executionAvgTime;
+    private final long executionMaxTime;
+    private final long totalTime;  // 평균 x 실행 수. 정렬 기준 (자주 실행되는 쿼리가 느린 단건보다 위에 온다.)
+    private final long rows;
+    private final long cacheHits;  // 쿼리 캐시 (org.hibernate.cacheable 힌트를 준 쿼리만)
+    private final long cacheMisses;
+
+    public QueryStatisticsDto(String query, QueryStatistics statistics) {
+        this.query = query;
+        this.executionCount = statistics.getExecutionCount();
+        this.executionAvgTime = statistics.getExecutionAvgTime();
+        this.executionMaxTime = statistics.getExecutionMaxTime();
+        this.totalTime = statistics.getExecutionTotalTime();
+        this.rows = statistics.getExecutionRowCount();
+        this.cacheHits = statistics.getCacheHitCount();
+        this.cacheMisses = statistics.getCacheMissCount();
+    }
+}
@@ -0,0 +1,56 @@
+package study.datajpa.monitoring;
+
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+//리포지토리 메소드 하나의 누적 지표
+//기록(record)은 여러 스레드에서 락 없이 동시에 호출된다. (Recorder 는 wait-free, LongAdder)
+//조회할 때만 Recorder 에 쌓인 구간 히스토그램을 누적 히스토그램으로 옮긴다.
+public class RepositoryMethodMetrics {
+
+    @Getter
+    private final String method;
+    @Getter
+    private final boolean write;
+    @Getter
+    private final boolean modifying;
+    private final Recorder latencyMicros = new Recorder(3);  // 유효숫자 3자리, 범위는 자동 확장
+    private final Histogram accumulated = new Histogram(3);
+    private Histogram interval;
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder affectedRows = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    RepositoryMethodMetrics(String method, boolean write, boolean modifying) {
+        this.method = method;
+        this.write = write;
+        this.modifying = modifying;
+    }
+
+    void record(long elapsedNanos, long rowCount, long affectedRowCount, boolean failed) {
+        latencyMicros.recordValue(Math.max(1, elapsedNanos / 1_000));
+        rows.add(rowCount);
+        affectedRows.add(affectedRowCount);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    public synchronized RepositoryMethodStatisticsDto toStatistics() {
+        interval = latencyMicros.getIntervalHistogram(interval);
+        accumulated.add(interval);
+        return new RepositoryMethodStatisticsDto(
+                method,
+                accumulated.getTotalCount(),
+                errors.sum(),
+                rows.sum(),
+                affectedRows.sum(),
+                accumulated.getValueAtPercentile(50),
+                accumulated.getValueAtPercentile(99),
+                accumulated.getValueAtPercentile(99.9),
+                accumulated.getMaxValue());
+    }
+}
@@ -0,0 +1,30 @@
+package study.datajpa.monitoring;
+
+import lombok.Getter;
+
+//지연 시간 단위는 마이크로초
+//rows 는 조회한 행 수, affectedRows 는 @Modifying 벌크 쿼리가 변경한 행 수
+@Getter
+public class RepositoryMethodStatisticsDto {
+    private final String method;
+    private final long calls;
+    private final long errors;
+    private final long rows;
+    private final long affectedRows;
+    private final long p50;
+    private final long p99;
+    private final long p999;
+    private final long max;
+
+    public RepositoryMethodStatisticsDto(String method, long calls, long errors, long rows, long affectedRows, long p50, long p99, long p999, long max) {
+        this.method = method;
+        this.calls = calls;
+        this.errors = errors;
+        this.rows = rows;
+        this.affectedRows = affectedRows;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+}
@@ -0,0 +1,136 @@
+package study.datajpa.monitoring;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.BaseStream;
+import java.util.stream.Collectors;
+
+//모든 리포지토리 호출의 지연 시간, 반환 건수, 예외를 메소드별로 기록한다.
+//스프링 데이터 JPA 리포지토리(프록시)와 @Repository 클래스(MemberJpaRepository, TeamJpaRepository)가 대상이다.
+//호출마다 nanoTime 2번 + 히스토그램 기록만 하므로 운영에서 항상 켜두어도 된다.
+//실행 중인 리포지토리 메소드 이름을 스레드에 남겨서 느린 쿼리 로그(SlowQueryListener)가 SQL 을 호출한 메소드를 알 수 있게 한다.
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    private static final ThreadLocal<String> CURRENT_METHOD = new ThreadLocal<>();
+
+    private final Map<Class<?>, Map<Method, RepositoryMethodMetrics>> metrics = new ConcurrentHashMap<>();
+
+    //현재 스레드에서 실행 중인 리포지토리 메소드. 중첩 호출이면 가장 안쪽 메소드, 리포지토리 밖이면 null
+    public static String currentMethod() {
+        return CURRENT_METHOD.get();
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))" +
+            " || @within(org.springframework.stereotype.Repository)")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        RepositoryMethodMetrics methodMetrics = metricsFor(joinPoint);
+        String outer = CURRENT_METHOD.get();
+        CURRENT_METHOD.set(methodMetrics.getMethod());
+        long start = System.nanoTime();
+        Object result = null;
+        boolean failed = false;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } catch (Throwable e) {
+            failed = true;
+            throw e;
+        } finally {
+            methodMetrics.record(System.nanoTime() - start, rowCount(methodMetrics, result), affectedRows(methodMetrics, result), failed);
+            if (outer == null) {
+                CURRENT_METHOD.remove();
+            } else {
+                CURRENT_METHOD.set(outer);
+            }
+        }
+    }
+
+    public List<RepositoryMethodStatisticsDto> statistics() {
+        return metrics.values().stream()
+                .flatMap(byMethod -> byMethod.values().stream())
+                .map(RepositoryMethodMetrics::toStatistics)
+                .sorted(Comparator.comparing(RepositoryMethodStatisticsDto::getMethod))
+                .toList();
+    }
+
+    private RepositoryMethodMetrics metricsFor(ProceedingJoinPoint joinPoint) {
+        Class<?> targetClass = joinPoint.getTarget().getClass();
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return metrics.computeIfAbsent(targetClass, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(method, key -> new RepositoryMethodMetrics(methodName(targetClass, method), isWrite(method), isModifying(method)));
+    }
+
+    //save, delete 는 저장한 엔티티(또는 void)를 돌려줄 뿐 조회한 행이 아니다.
+    private static boolean isWrite(Method method) {
+        String name = method.getName();
+        return name.startsWith("save") || name.startsWith("delete");
+    }
+
+    //@Modifying 벌크 쿼리의 int 반환값은 조회 건수가 아니라 변경된 행 수다.
+    //@Repository 클래스에서 executeUpdate() 결과를 반환하는 메소드도 @Modifying 을 붙여서 표시한다. (예: MemberJpaRepository.bulkAgePlus)
+    private static boolean isModifying(Method method) {
+        return AnnotatedElementUtils.hasAnnotation(method, Modifying.class);
+    }
+
+    //예) MemberRepository.findAll(Pageable), MemberJpaRepository.findByPage(int,int,int)
+    private static String methodName(Class<?> targetClass, Method method) {
+        String parameters = Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(","));
+        return repositoryName(targetClass) + "." + method.getName() + "(" + parameters + ")";
+    }
+
+    private static String repositoryName(Class<?> targetClass) {
+        //스프링 데이터 리포지토리는 JDK 동적 프록시이므로 클래스 대신 사용자가 정의한 리포지토리 인터페이스 이름을 사용한다.
+        return ClassUtils.getAllInterfacesForClassAsSet(targetClass).stream()
+                .filter(type -> Repository.class.isAssignableFrom(type) && !type.getName().startsWith("org.springframework."))
+                .findFirst()
+                .map(Class::getSimpleName)
+                .orElseGet(() -> ClassUtils.getUserClass(targetClass).getSimpleName());
+    }
+
+    //반환된 행 수. 컬렉션/페이지는 건수, 단건 엔티티/DTO 는 1, 없으면 0 (Stream 은 소비 전이라 셀 수 없으므로 0)
+    //쓰기 메소드, 숫자(count, 벌크 연산 결과), Boolean(exists) 는 조회한 행이 아니므로 0
+    private static long rowCount(RepositoryMethodMetrics methodMetrics, Object result) {
+        if (methodMetrics.isWrite() || methodMetrics.isModifying()) {
+            return 0;
+        }
+        if (result == null || result instanceof BaseStream<?, ?> || result instanceof Number || result instanceof Boolean) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return 1;
+    }
+
+    //@Modifying 벌크 쿼리가 변경한 행 수는 조회 건수와 따로 집계한다.
+    private static long affectedRows(RepositoryMethodMetrics methodMetrics, Object result) {
+        return methodMetrics.isModifying() && result instanceof Number number ? number.longValue() : 0;
+    }
+}
@@ -0,0 +1,20 @@
+package study.datajpa.monitoring;
+
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+public class SlowQueryDto {
+    private final Instant executedAt;
+    private final String method;  // SQL 을 실행한 리포지토리 메소드. 리포지토리 밖에서 실행했으면 null
+    private final String sql;
+    private final long elapsedMillis;
+
+    public SlowQueryDto(Instant executedAt, String method, String sql, long elapsedMillis) {
+        this.executedAt = executedAt;
+        this.method = method;
+        this.sql = sql;
+        this.elapsedMillis = elapsedMillis;
+    }
+}
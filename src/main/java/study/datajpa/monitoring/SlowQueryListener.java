@@ -0,0 +1,65 @@
+package study.datajpa.monitoring;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//실행 시간이 기준(monitoring.slow-query.threshold-ms) 이상인 SQL 만 로그로 남긴다.
+//모든 SQL 을 로그로 남기지 않아도 느린 쿼리와 그 쿼리를 실행한 리포지토리 메소드를 찾을 수 있다.
+//최근 느린 쿼리는 /monitoring/slow-queries 로 조회한다.
+@Slf4j
+@Component
+public class SlowQueryListener extends JdbcEventListener {
+
+    private static final int RECENT_LIMIT = 100;
+
+    private final long thresholdNanos;
+    private final Deque<SlowQueryDto> recent = new ArrayDeque<>(RECENT_LIMIT);
+
+    public SlowQueryListener(@Value("${monitoring.slow-query.threshold-ms:200}") long thresholdMillis) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        record(statementInformation.getSql(), timeElapsedNanos);
+    }
+
+    //기준 이상이면 기록하고 true
+    boolean record(String sql, long elapsedNanos) {
+        if (elapsedNanos < thresholdNanos) {
+            return false;
+        }
+        String method = RepositoryMetricsAspect.currentMethod();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        log.warn("느린 쿼리 {}ms [{}] {}", elapsedMillis, method == null ? "-" : method, sql);
+
+        SlowQueryDto slowQuery = new SlowQueryDto(Instant.now(), method, sql, elapsedMillis);
+        synchronized (recent) {
+            if (recent.size() == RECENT_LIMIT) {
+                recent.removeFirst();
+            }
+            recent.addLast(slowQuery);
+        }
+        return true;
+    }
+
+    //최근 느린 쿼리. 최신순
+    public List<SlowQueryDto> recent() {
+        synchronized (recent) {
+            List<SlowQueryDto> result = new ArrayList<>(recent.size());
+            recent.descendingIterator().forEachRemaining(result::add);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package study.datajpa.monitoring;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+//SQL 로그를 요청 스레드 대신 별도 스레드에서 남긴다. monitoring.sql-log.enabled=false 면 SQL 로그를 남기지 않는다.
+//p6spy 자체 로그(decorator.datasource.p6spy.enable-logging)는 SQL 마다 요청 스레드에서 동기로 포맷하고 쓰기 때문에 끈다.
+@Configuration
+@ConditionalOnProperty(prefix = "monitoring.sql-log", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(SqlLogProperties.class)
+public class SqlLogConfig {
+
+    @Bean
+    public AsyncSqlLogger asyncSqlLogger(SqlLogProperties properties) {
+        return new AsyncSqlLogger(properties);
+    }
+}
@@ -0,0 +1,18 @@
+package study.datajpa.monitoring;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "monitoring.sql-log")
+public class SqlLogProperties {
+
+    private boolean enabled = true;
+    private int sampleRate = 1;  // N 건 중 1건만 남긴다. 1 이면 모두
+    private long thresholdMillis = 0;  // 이 시간 이상 걸린 SQL 만 남긴다.
+    private int bufferSize = 8192;
+    private int batchSize = 256;
+    private long pollTimeoutMillis = 200;
+}
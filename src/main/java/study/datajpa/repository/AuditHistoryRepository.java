@@ -0,0 +1,11 @@
+package study.datajpa.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import study.datajpa.entity.AuditHistory;
+
+import java.util.List;
+
+public interface AuditHistoryRepository extends JpaRepository<AuditHistory, Long> {
+
+    List<AuditHistory> findByEntityNameAndEntityIdOrderByIdAsc(String entityName, String entityId);
+}
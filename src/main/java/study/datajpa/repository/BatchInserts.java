@@ -0,0 +1,40 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//saveAllBatched 공통 구현. batchSize 건마다 flush(JDBC batch insert) 하고 그 청크에서 저장한 엔티티만 분리(detach)한다.
+//em.clear() 를 사용하면 호출한 쪽 트랜잭션에 참여했을 때 호출한 쪽이 들고 있던 다른 엔티티까지 준영속이 되어 이후 변경이 반영되지 않는다.
+final class BatchInserts {
+
+    private BatchInserts() {
+    }
+
+    static <T> int persistAll(EntityManager em, Iterable<T> entities, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize 는 1 이상이어야 합니다. batchSize=" + batchSize);
+        }
+
+        int count = 0;
+        List<T> chunk = new ArrayList<>(batchSize);
+        for (T entity : entities) {
+            em.persist(entity);  // 식별자는 시퀀스 pooled 할당이라 insert 가 바로 나가지 않고 flush 시점에 batch 로 나간다.
+            chunk.add(entity);
+            if (++count % batchSize == 0) {
+                flushAndDetach(em, chunk);
+            }
+        }
+        flushAndDetach(em, chunk);
+        return count;
+    }
+
+    private static <T> void flushAndDetach(EntityManager em, List<T> chunk) {
+        em.flush();
+        for (T entity : chunk) {
+            em.detach(entity);
+        }
+        chunk.clear();
+    }
+}
@@ -0,0 +1,13 @@
+package study.datajpa.repository;
+
+//청크 단위 벌크 연산의 진행 상황. 청크가 커밋될 때마다 호출된다.
+@FunctionalInterface
+public interface ChunkProgressListener {
+
+    //lastId: 이번 청크까지 처리한 마지막 id, maxId: 처리 대상 최대 id
+    //chunkCount: 이번 청크에서 변경된 건수, totalCount: 지금까지 변경된 건수
+    void onChunk(long lastId, long maxId, int chunkCount, long totalCount);
+
+    ChunkProgressListener NONE = (lastId, maxId, chunkCount, totalCount) -> {
+    };
+}
@@ -0,0 +1,14 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Item;
+
+import java.util.Collection;
+
+public interface ItemRepositoryCustom {
+
+    //id 가 없으면 insert, 있으면 그대로 둔다. (기존 createdDate 유지)
+    //save() 와 달리 merge 의 select 가 없고, batchSize 개씩 JDBC batch 로 보낸다.
+    //영속성 컨텍스트를 거치지 않으므로 인자로 넘긴 Item 은 영속 상태가 되지 않고 createdDate 도 채워지지 않는다. 필요하면 다시 조회한다.
+    //반환값은 새로 insert 된 건수
+    int upsertAll(Collection<Item> items, int batchSize);
+}
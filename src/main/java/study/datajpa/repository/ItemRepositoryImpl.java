@@ -0,0 +1,43 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Item;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@RequiredArgsConstructor
+public class ItemRepositoryImpl implements ItemRepositoryCustom {
+
+    //H2 표준 MERGE. 일치하는 행이 있으면 아무것도 하지 않으므로 createdDate 는 처음 insert 한 값이 유지된다.
+    //(MERGE INTO ... KEY 문법은 기존 행의 created_date 를 덮어쓰므로 사용하지 않는다.)
+    private static final String UPSERT_SQL = "merge into item i"
+            + " using (select cast(? as varchar(255)) as id, cast(? as timestamp(6)) as created_date) s"
+            + " on i.id = s.id"
+            + " when not matched then insert (id, created_date) values (s.id, s.created_date)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional  // JPA 트랜잭션의 커넥션을 JdbcTemplate 이 같이 사용한다.
+    public int upsertAll(Collection<Item> items, int batchSize) {
+        Timestamp createdDate = Timestamp.valueOf(LocalDateTime.now());  // @CreatedDate 와 같은 의미. 새로 insert 되는 행에만 들어간다.
+        int[][] counts = jdbcTemplate.batchUpdate(UPSERT_SQL, items, batchSize, (ps, item) -> {
+            ps.setString(1, item.getId());
+            ps.setTimestamp(2, createdDate);
+        });
+
+        int inserted = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count > 0) {
+                    inserted += count;
+                }
+            }
+        }
+        return inserted;
+    }
+}
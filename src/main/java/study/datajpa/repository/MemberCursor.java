@@ -0,0 +1,53 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+//키셋 페이징의 연속 토큰
+//클라이언트에는 마지막으로 읽은 행의 정렬 키 값을 Base64 로 인코딩한 불투명(opaque) 문자열만 전달한다.
+//페이지 번호 대신 이 토큰을 다시 넘겨받아 where 조건으로 바로 다음 위치를 찾기 때문에(seek) 페이지 깊이와 무관하게 비용이 같다.
+@Getter
+public class MemberCursor {
+
+    private static final String DELIMITER = "\u0000";
+
+    private final MemberKeysetSort sort;
+    private final Long id;          // null 이면 첫 페이지
+    private final String username;  // username 정렬에서 null 이면 username 이 null 인 회원 구간
+
+    private MemberCursor(MemberKeysetSort sort, Long id, String username) {
+        this.sort = sort;
+        this.id = id;
+        this.username = username;
+    }
+
+    public static MemberCursor first(MemberKeysetSort sort) {
+        return new MemberCursor(sort, null, null);
+    }
+
+    public static MemberCursor after(MemberKeysetSort sort, Long id, String username) {
+        return new MemberCursor(sort, id, username);
+    }
+
+    public boolean isFirst() {
+        return id == null;
+    }
+
+    public String encode() {
+        //username 이 null 이면 구분자까지 생략해서 빈 문자열 username 과 구분한다.
+        String raw = sort.name() + DELIMITER + id + (username == null ? "" : DELIMITER + username);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static MemberCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(DELIMITER, 3);
+            return new MemberCursor(MemberKeysetSort.valueOf(parts[0]), Long.valueOf(parts[1]), parts.length == 3 ? parts[2] : null);
+        } catch (RuntimeException e) {  // Base64, enum, 숫자 변환 오류를 모두 잘못된 토큰으로 처리
+            throw new IllegalArgumentException("잘못된 cursor 토큰입니다. token=" + token, e);
+        }
+    }
+}
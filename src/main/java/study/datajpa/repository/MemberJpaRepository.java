@@ -2,6 +2,7 @@ package study.datajpa.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.stereotype.Repository;
 import study.datajpa.entity.Member;
 
@@ -71,8 +72,9 @@ public class MemberJpaRepository {
                 .getSingleResult();
     }
 
+    @Modifying  // 스프링 데이터가 처리하지는 않는다. RepositoryMetricsAspect 가 반환값을 조회 건수가 아니라 변경된 행 수로 집계하도록 표시
     public int bulkAgePlus(int age) {
-        return em.createQuery("update Member m set m.age = m.age + 1 where m.age >= :age")
+        return em.createQuery("update versioned Member m set m.age = m.age + 1 where m.age >= :age")  //version 도 올린다. (낙관적 락)
                 .setParameter("age",age)
                 .executeUpdate();
     }
@@ -0,0 +1,8 @@
+package study.datajpa.repository;
+
+//키셋(seek) 페이징에서 허용하는 정렬 조건 (화이트리스트)
+//정렬 키는 항상 유일해야 하므로 username 정렬은 member_id 를 보조 키로 함께 사용한다.
+public enum MemberKeysetSort {
+    USERNAME,  // order by username, member_id
+    ID         // order by member_id
+}
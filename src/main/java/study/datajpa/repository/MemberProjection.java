@@ -1,5 +1,8 @@
 package study.datajpa.repository;
 
+import study.datajpa.projection.ClosedProjection;
+
+@ClosedProjection  // 컴파일 시 MemberProjectionImpl(id, username, teamName) 생성
 public interface MemberProjection {
 
     Long getId();
@@ -7,16 +7,22 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom, JpaSpecificationExecutor<Member> {
 
     List<Member> findByUsernameAndAgeGreaterThan(String username, int age); //메소드 이름으로 쿼리 생성
 
+    @QueryHints(value = {  // 쿼리 결과 캐시 (username 단건 조회는 같은 값이 반복해서 조회된다)
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "query.Member.findByUsername")
+    })
     @Query(name = "Member.findByUsername")  // 주석처리하여도 네임드쿼리가 동작한다. 이유는 JPA가 엔티티.메소드명으로 먼저 namedQuery를 찾고 없으면, 메소드 이름으로 쿼리 생성을 하기 때문.
     List<Member> findByUsername(@Param("username") String username);  // 네임드 쿼리 호출. 파라미터가 있는 경우 @Param을 해주어야 한다.
 
@@ -29,11 +35,26 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @Query("select new study.datajpa.dto.MemberDto (m.id, m.username, t.name) from Member m join m.team t")
     List<MemberDto> findMemberDto(); // @Query DTO 타입으로 조회
 
-    @Query("select m from Member m where m.username in :names")
-    List<Member> findByNames(@Param("names") List<String> names); //파라미터 바인딩
+    //DTO 로 바로 조회하는 페이징. 엔티티를 만들지 않으므로 영속성 컨텍스트, 변경 감지 스냅샷 비용이 없다.
+    //팀이 없는 회원도 조회되도록 left join, 카운트 쿼리는 조인이 필요 없으므로 분리한다.
+    //정렬은 Member 의 속성(username, id, age ...)만 가능하다.
+    @Transactional(readOnly = true)  // 읽기 전용 트랜잭션 -> replica (datasource.routing)
+    @Query(value = "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t",
+            countQuery = "select count(m) from Member m")
+    Page<MemberDto> findMemberDtoPage(Pageable pageable);
 
     List<Member> findListByUsername(String username);  //컬렉션
+
+    @QueryHints(value = {
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "query.Member.findMemberByUsername")
+    })
     Member findMemberByUsername(String username); // 단건
+
+    @QueryHints(value = {
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "query.Member.findOptionalByUsername")
+    })
     Optional<Member> findOptionalByUsername(String username); // 단건 Optional
 
 //    @Query(value = "select m from Member m left join m.team", countQuery = "select count(m.username) from Member m") countQuery 분리가능.
@@ -42,13 +63,24 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     Page<Member> findByAge(int age, Pageable pageable);
     Slice<Member> findSliceByAge(int age, Pageable pageable);
 
+    @Transactional  // 쓰기는 항상 primary. 바깥 readOnly 트랜잭션 안에서 호출하면 PrimaryOnlyGuardAspect 가 실패시킨다.
     @Modifying(clearAutomatically = true)  //선언하지 않으면 update되지 않는다. clearAutomatically = true 선언 시 update 쿼리가 나가고 영속성 초기화를 해준다.
-    @Query("update Member m set m.age = m.age + 1 where m.age >= :age")
+    @Query("update versioned Member m set m.age = m.age + 1 where m.age >= :age")  //versioned: version 도 올려서 이전에 읽은 엔티티의 낙관적 락 수정이 이 변경을 덮어쓰지 못하게 한다.
     int bulkAgePlus(@Param("age") int age);
 
     @Query("select m from Member m left join fetch m.team")
     List<Member> findMemberFetchJoin();
 
+    //대용량 조회용 Stream. 결과를 List 로 모으지 않고 JDBC 커서(ScrollableResults)로 한 건씩 읽는다.
+    //fetchSize: 드라이버가 한 번에 가져오는 행 수, readOnly: 변경 감지용 스냅샷을 만들지 않는다.
+    //Stream 은 트랜잭션 안에서 사용하고 반드시 close 해야 한다. (try-with-resources)
+    @QueryHints(value = {
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("select m from Member m left join fetch m.team")
+    Stream<Member> streamAllBy();
+
     @Override
     @EntityGraph(attributePaths = {"team"})  // N+1 문제를 해결할떄 Fetch Join을 사용하는데, findAll() 또는 메소드 이름으로 생성하는 방식에는 직접 JPQL을 작성하지 않는다. 그럴떄 EntityGraph 사용.
     List<Member> findAll();
@@ -61,21 +93,42 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @EntityGraph("Member.all")
     List<Member> findEntityGraphByUsername(@Param("username") String username);
 
-    @QueryHints(value = @QueryHint(name = "org.hibernate.readOnly",value = "true")) //JPA 쿼리 힌트(SQL 힌트가 아니라 JPA 구현체에게 제공하는 힌트)
+    @QueryHints(value = {
+            @QueryHint(name = "org.hibernate.readOnly",value = "true"), //JPA 쿼리 힌트(SQL 힌트가 아니라 JPA 구현체에게 제공하는 힌트)
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "query.Member.findReadOnlyByUsername")
+    })
+    @Transactional(readOnly = true)
     Member findReadOnlyByUsername(String username);
 
+    @Transactional  // 락은 primary 에서만 의미가 있다. 바깥 readOnly 트랜잭션 안에서 호출하면 PrimaryOnlyGuardAspect 가 실패시킨다.
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     List<Member> findLockByUsername(String username);
 
-    List<UserNameOnly> findProjectionsInterfaceByUsername(String username);
-   <T> List<T> findProjectionsClassByUsername(String username, Class<T> type);
+    //인터페이스 프로젝션을 스프링 데이터가 프록시로 만들지 않도록 생성된 구현 클래스를 생성자 표현식으로 조회한다.
+    //결과가 이미 반환 타입의 인스턴스이면 스프링 데이터는 그대로 반환한다.
+    @Transactional(readOnly = true)
+    @Query("select new study.datajpa.repository.UserNameOnlyImpl(m.username) from Member m where m.username = :username")
+    List<UserNameOnly> findProjectionsInterfaceByUsername(@Param("username") String username);
+
+    @Transactional(readOnly = true)
+    @Query("select new study.datajpa.repository.NestedClosedProjectionsImpl(m.username, t.name)" +
+            " from Member m left join m.team t where m.username = :username")
+    List<NestedClosedProjections> findNestedProjectionsByUsername(@Param("username") String username);
+
+   //username 접두어 인덱스(UsernamePrefixIndex) 초기 적재용
+   @Transactional(readOnly = true)
+   @Query("select new study.datajpa.repository.UsernameIndexEntryImpl(m.id, m.username) from Member m where m.username is not null")
+   List<UsernameIndexEntry> findUsernameIndexEntries();
+
+   //동적 프로젝션 findProjectionsClassByUsername(username, type) 은 MemberRepositoryCustom
+   //아래는 같은 결과를 직접 작성한 생성자 표현식 (벤치마크 비교용)
+   @Transactional(readOnly = true)
+   @Query("select new study.datajpa.repository.UsernameOnlyDto(m.username) from Member m where m.username = :username")
+   List<UsernameOnlyDto> findUsernameOnlyDtoByUsername(@Param("username") String username);
 
    @Query(value = "select * from member where username = ?", nativeQuery = true)
    Member findByNativeQuery(String username);
 
-   @Query(value = "select m.member_id as id, m.username, t.name as teamName " +
-                    "from member m left join team t"
-           , countQuery = "select count(*) from member"
-           , nativeQuery = true)
-   Page<MemberProjection> findByNativeProjection(Pageable pageable);
+   //네이티브 쿼리 + 프로젝션 페이징은 MemberRepositoryCustom.findByNativeProjection
 }
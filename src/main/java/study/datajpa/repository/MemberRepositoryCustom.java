@@ -1,7 +1,11 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import study.datajpa.dto.CursorPage;
 import study.datajpa.entity.Member;
 
+import java.util.Collection;
 import java.util.List;
 
 //스프링 데이터 JPA 리포지토리는 인터페이스만 정의하고 구현체는 스프링이 자동 생성
@@ -14,4 +18,42 @@ import java.util.List;
 //Querydsl 사용
 public interface MemberRepositoryCustom {
     List<Member> findMemberCustom();
+
+    //findAll(Specification) 과 같은 검색. 조건 형태별로 만든 JPQL 을 재사용해서 하이버네이트 쿼리 플랜 캐시를 탄다. (ShapeQueryCache)
+    List<Member> search(MemberSearchCondition condition);
+
+    //username in 조회. 목록 크기마다 다른 SQL 이 만들어져 쿼리 플랜 캐시/PreparedStatement 캐시를 채우지 않도록
+    //파라미터 수를 2의 거듭제곱으로 맞추고, 큰 목록은 나눠서 조회한다. (DB 파라미터 수 제한)
+    List<Member> findByNames(Collection<String> names);
+
+    //동적 프로젝션. 타입별로 필요한 컬럼만 select 하는 JPQL 과 생성자 MethodHandle 을 캐시해서 사용한다. (ProjectionPlan)
+    //DTO 클래스와 @ClosedProjection 인터페이스는 프록시 없이 생성하고, 그 외 닫힌 인터페이스는 필요한 컬럼만 조회해서 프록시로 감싼다.
+    //엔티티 전체를 조회하는 것은 열린 프로젝션(@Value)뿐이다.
+    <T> List<T> findProjectionsClassByUsername(String username, Class<T> type);
+
+    //네이티브 쿼리 + MemberProjection 페이징. 회원 키(member_id 또는 username, member_id 인덱스)로 페이지를 먼저 자른 뒤
+    //그 회원들만 팀과 조인한다. (deferred join) 회원:팀은 N:1 이라 조인해도 행이 늘지 않으므로 count 쿼리(회원 수)와 항상 일치한다.
+    //정렬은 id, username 만 지원한다. (기본 id)
+    Page<MemberProjection> findByNativeProjection(Pageable pageable);
+
+    //키셋(seek) 페이징. offset 대신 직전 페이지의 마지막 키 다음부터 size 건을 조회하고, count 쿼리도 실행하지 않는다.
+    //username 정렬에서 username 이 null 인 회원은 마지막에 member_id 순으로 나온다.
+    CursorPage<Member> findMemberKeyset(MemberCursor cursor, int size);
+
+    //대량 저장. batchSize 건마다 flush(JDBC batch insert) 하고 저장한 회원을 분리(detach)해서 영속성 컨텍스트가 커지지 않게 한다.
+    //저장한 회원은 준영속 상태가 되므로 변경해도 반영되지 않는다. 호출한 쪽 트랜잭션의 다른 엔티티는 그대로 영속 상태다.
+    int saveAllBatched(Iterable<Member> members, int batchSize);
+
+    //JpaRepository 의 벌크 delete 를 대신한다. 엔티티 리스너를 거치지 않으므로 username 접두어 인덱스(UsernamePrefixIndex)에서
+    //커밋 후에 삭제한 id 를 빼고, 전체 삭제는 다시 적재한다. (롤백되면 그대로 둔다.)
+    void deleteAllInBatch();
+
+    void deleteAllInBatch(Iterable<Member> members);
+
+    void deleteAllByIdInBatch(Iterable<Long> ids);
+
+    //bulkAgePlus 를 대상 회원 chunkSize 명씩(member_id 키셋) 나눠서 청크마다 별도 트랜잭션으로 커밋한다.
+    //한 번에 테이블 전체에 락을 잡지 않고, 영속성 컨텍스트 전체를 clear 하지 않는다. (변경된 회원 엔티티만 분리)
+    //청크마다 커밋하므로 트랜잭션 밖에서 호출해야 한다.
+    long bulkAgePlusInChunks(int age, int chunkSize, ChunkProgressListener listener);
 }
@@ -1,10 +1,34 @@
 package study.datajpa.repository;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.CursorPage;
 import study.datajpa.entity.Member;
+import study.datajpa.search.UsernamePrefixIndex;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @RequiredArgsConstructor
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
@@ -30,9 +54,306 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
     //예를들어 MemberQueryRepository를 인터페이스가 아닌 클래스로 만들고 스프링 빈으로 등록해서
     //그냥 직접 사용해도 된다. 물론 이 경우 스프링 데이터 JPA와는 아무런 관계 없이 별도로 동작한다.
 
+    //in 절 파라미터는 최대 이만큼씩 나눠서 조회한다. 2의 거듭제곱이어야 패딩(hibernate.query.in_clause_parameter_padding) 크기와 맞는다.
+    static final int IN_LIST_CHUNK_SIZE = 1024;
+
     private final EntityManager em;
+    private final PlatformTransactionManager transactionManager;
+    private final ShapeQueryCache shapeQueryCache;
+    private final ObjectProvider<UsernamePrefixIndex> usernamePrefixIndex;  // 인덱스가 MemberRepository 에 의존하므로 사용할 때 꺼낸다.
+
+    private final Map<Class<?>, ProjectionPlan> projectionPlans = new ConcurrentHashMap<>();
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
     @Override
     public List<Member> findMemberCustom() {
         return em.createQuery("select m from Member m", Member.class).getResultList();
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public <T> List<T> findProjectionsClassByUsername(String username, Class<T> type) {
+        //타입별 조회 계획(JPQL, 생성자 MethodHandle)은 처음 호출할 때 한 번만 만든다.
+        ProjectionPlan plan = projectionPlans.computeIfAbsent(type,
+                key -> ProjectionPlan.create(key, em.getMetamodel().entity(Member.class), "m.username = :username", projectionFactory));
+        List<Object> rows = em.createQuery(plan.getJpql())
+                .setParameter("username", username)
+                .getResultList();
+        if (plan.isEntity()) {
+            return (List<T>) rows;
+        }
+
+        List<T> result = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            result.add((T) plan.map(row, projectionFactory));
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Member> search(MemberSearchCondition condition) {
+        int shape = condition.shape();
+        String jpql = shapeQueryCache.get("member.search#" + shape, key -> searchJpql(shape));
+
+        TypedQuery<Member> query = em.createQuery(jpql, Member.class);
+        if ((shape & MemberSearchCondition.TEAM_NAME) != 0) {
+            query.setParameter("teamName", condition.getTeamName());
+        }
+        if ((shape & MemberSearchCondition.USERNAME) != 0) {
+            query.setParameter("username", condition.getUsername());
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Member> findByNames(Collection<String> names) {
+        //중복 이름을 빼고, IN_LIST_CHUNK_SIZE 건씩 나눠서 조회한 결과를 합친다.
+        //하이버네이트가 파라미터 수를 2의 거듭제곱(1, 2, 4, ... 1024)으로 채우므로 목록 크기가 달라도 SQL 문자열은 11가지 뿐이다.
+        //청크는 같은 트랜잭션(영속성 컨텍스트)에서 차례로 조회한다. 회원은 이름이 달라도 한 번만 조회되므로 결과에 중복이 없다.
+        List<String> distinct = List.copyOf(new LinkedHashSet<>(names));
+        List<Member> result = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += IN_LIST_CHUNK_SIZE) {
+            List<String> chunk = distinct.subList(from, Math.min(from + IN_LIST_CHUNK_SIZE, distinct.size()));
+            result.addAll(em.createQuery("select m from Member m where m.username in :names", Member.class)
+                    .setParameter("names", chunk)
+                    .getResultList());
+        }
+        return result;
+    }
+
+    //MemberSpec.teamName(...).and(MemberSpec.username(...)) 과 같은 쿼리 (팀 이름 조건이 있을 때만 inner join)
+    private static String searchJpql(int shape) {
+        StringBuilder jpql = new StringBuilder("select m from Member m");
+        if ((shape & MemberSearchCondition.TEAM_NAME) != 0) {
+            jpql.append(" join m.team t");
+        }
+        String prefix = " where ";
+        if ((shape & MemberSearchCondition.TEAM_NAME) != 0) {
+            jpql.append(prefix).append("t.name = :teamName");
+            prefix = " and ";
+        }
+        if ((shape & MemberSearchCondition.USERNAME) != 0) {
+            jpql.append(prefix).append("m.username = :username");
+        }
+        return jpql.toString();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public Page<MemberProjection> findByNativeProjection(Pageable pageable) {
+        //페이지 키는 member 테이블만 읽어서 자른다. (member_id 는 PK, username 정렬은 (username, member_id) 인덱스만 읽는다.)
+        String pageKeys = "select member_id from member order by " + nativeOrderBy(pageable.getSort(), "")
+                + (pageable.isPaged() ? " limit :limit offset :offset" : "");
+        Query query = em.createNativeQuery("select m.member_id, m.username, t.name" +
+                " from (" + pageKeys + ") p" +
+                " join member m on m.member_id = p.member_id" +
+                " left join team t on t.team_id = m.team_id" +
+                " order by " + nativeOrderBy(pageable.getSort(), "m."));
+        if (pageable.isPaged()) {
+            query.setParameter("limit", pageable.getPageSize())
+                    .setParameter("offset", pageable.getOffset());
+        }
+
+        //프록시(TupleBackedMap) 대신 생성된 MemberProjectionImpl 로 바로 변환
+        List<MemberProjection> content = new ArrayList<>();
+        for (Object[] row : (List<Object[]>) query.getResultList()) {
+            content.add(new MemberProjectionImpl(((Number) row[0]).longValue(), (String) row[1], (String) row[2]));
+        }
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> ((Number) em.createNativeQuery("select count(*) from member").getSingleResult()).longValue());
+    }
+
+    //정렬 속성 -> 컬럼 (허용 목록). 같은 값이 있어도 순서가 정해지도록 member_id 를 마지막에 붙인다.
+    private static String nativeOrderBy(Sort sort, String alias) {
+        StringBuilder orderBy = new StringBuilder();
+        Sort.Direction idDirection = Sort.Direction.ASC;
+        for (Sort.Order order : sort) {
+            String column = switch (order.getProperty()) {
+                case "id" -> "member_id";
+                case "username" -> "username";
+                default -> throw new IllegalArgumentException("지원하지 않는 정렬 조건입니다. sort=" + order.getProperty());
+            };
+            if (column.equals("member_id")) {
+                idDirection = order.getDirection();
+                break;
+            }
+            orderBy.append(alias).append(column).append(' ').append(order.getDirection().name().toLowerCase()).append(", ");
+            idDirection = order.getDirection();  // (username, member_id) 인덱스를 한 방향으로 읽도록 같은 방향
+        }
+        return orderBy.append(alias).append("member_id ").append(idDirection.name().toLowerCase()).toString();
+    }
+
+    @Override
+    public CursorPage<Member> findMemberKeyset(MemberCursor cursor, int size) {
+        List<Member> result = switch (cursor.getSort()) {
+            case USERNAME -> findUsernameKeyset(cursor, size + 1);
+            case ID -> (cursor.isFirst()
+                    ? em.createQuery("select m from Member m order by m.id asc", Member.class)
+                    : em.createQuery("select m from Member m where m.id > :id order by m.id asc", Member.class)
+                            .setParameter("id", cursor.getId()))
+                    .setMaxResults(size + 1)
+                    .getResultList();
+        };
+
+        //size + 1 건을 조회해서 다음 페이지 존재 여부를 판단한다. (Slice 와 같은 방식)
+        if (result.size() <= size) {
+            return new CursorPage<>(result, null);
+        }
+
+        List<Member> content = result.subList(0, size);
+        Member last = content.get(size - 1);
+        return new CursorPage<>(content, MemberCursor.after(cursor.getSort(), last.getId(), last.getUsername()).encode());
+    }
+
+    //username 이 있는 회원을 (username, member_id) 순으로 모두 읽은 뒤, username 이 null 인 회원을 member_id 순으로 이어서 읽는다. (nulls last)
+    //order by ... nulls last 한 쿼리로 만들면 (username, member_id) 인덱스 순서를 그대로 사용할 수 없으므로 두 구간으로 나눈다.
+    private List<Member> findUsernameKeyset(MemberCursor cursor, int limit) {
+        List<Member> result = new ArrayList<>();
+        boolean inNullSection = !cursor.isFirst() && cursor.getUsername() == null;
+        if (!inNullSection) {
+            TypedQuery<Member> query = cursor.isFirst()
+                    ? em.createQuery("select m from Member m where m.username is not null" +
+                    " order by m.username asc, m.id asc", Member.class)
+                    // username >= :username 조건은 (username, member_id) 인덱스 range scan 을 유도하기 위해 중복으로 둔다.
+                    : em.createQuery("select m from Member m where m.username >= :username" +
+                                    " and (m.username > :username or m.id > :id)" +
+                                    " order by m.username asc, m.id asc", Member.class)
+                            .setParameter("username", cursor.getUsername())
+                            .setParameter("id", cursor.getId());
+            result.addAll(query.setMaxResults(limit).getResultList());
+            if (result.size() == limit) {
+                return result;
+            }
+        }
+
+        TypedQuery<Member> nulls = inNullSection
+                ? em.createQuery("select m from Member m where m.username is null and m.id > :id order by m.id asc", Member.class)
+                        .setParameter("id", cursor.getId())
+                : em.createQuery("select m from Member m where m.username is null order by m.id asc", Member.class);
+        result.addAll(nulls.setMaxResults(limit - result.size()).getResultList());
+        return result;
+    }
+
+    @Override
+    @Transactional
+    public int saveAllBatched(Iterable<Member> members, int batchSize) {
+        return BatchInserts.persistAll(em, members, batchSize);
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllInBatch() {
+        //스프링 데이터와 같은 delete 한 번. 어떤 id 가 지워졌는지 모르므로 커밋 후에 인덱스를 다시 적재한다.
+        em.createQuery("delete from Member m").executeUpdate();
+        usernamePrefixIndex.getObject().rebuildAfterCommit();
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllInBatch(Iterable<Member> members) {
+        List<Long> ids = new ArrayList<>();
+        for (Member member : members) {
+            if (member.getId() != null) {  // 저장되지 않은 회원은 지울 행이 없다.
+                ids.add(member.getId());
+            }
+        }
+        deleteAllByIdInBatch(ids);
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        List<Long> distinct = List.copyOf(new LinkedHashSet<>(toList(ids)));
+        for (int from = 0; from < distinct.size(); from += IN_LIST_CHUNK_SIZE) {
+            em.createQuery("delete from Member m where m.id in :ids")
+                    .setParameter("ids", distinct.subList(from, Math.min(from + IN_LIST_CHUNK_SIZE, distinct.size())))
+                    .executeUpdate();
+        }
+        usernamePrefixIndex.getObject().removeAfterCommit(distinct);
+    }
+
+    private static <T> List<T> toList(Iterable<T> values) {
+        List<T> list = new ArrayList<>();
+        values.forEach(list::add);
+        return list;
+    }
+
+    @Override
+    public long bulkAgePlusInChunks(int age, int chunkSize, ChunkProgressListener listener) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            //바깥 트랜잭션이 잡은 행 락을 청크 트랜잭션이 기다리게 될 수 있다.
+            throw new IllegalStateException("bulkAgePlusInChunks 는 청크마다 커밋하므로 트랜잭션 밖에서 호출해야 합니다.");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize 는 1 이상이어야 합니다. chunkSize=" + chunkSize);
+        }
+
+        TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+        chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Long maxId = chunkTransaction.execute(status ->
+                em.createQuery("select max(m.id) from Member m where m.age >= :age", Long.class)
+                        .setParameter("age", age)
+                        .getSingleResult());
+        if (maxId == null) {
+            return 0;
+        }
+
+        //id 범위를 고정 폭으로 나누면 id 가 듬성듬성할 때(시퀀스 allocationSize 만큼 건너뛴 재시작 등) 빈 트랜잭션이 많아진다.
+        //대신 키셋으로 다음 대상 chunkSize 건의 id 를 찾고, 그 처음~마지막 id 구간만 수정한다. (청크마다 실제로 수정할 회원이 있다.)
+        long total = 0;
+        long lastId = Long.MIN_VALUE;
+        while (true) {
+            long afterId = lastId;
+            long[] chunk = chunkTransaction.execute(status -> {
+                List<Long> ids = em.createQuery("select m.id from Member m" +
+                                " where m.id > :afterId and m.id <= :maxId and m.age >= :age order by m.id", Long.class)
+                        .setParameter("afterId", afterId)
+                        .setParameter("maxId", maxId)  // 시작 이후 새로 저장된 회원은 대상이 아니다.
+                        .setParameter("age", age)
+                        .setMaxResults(chunkSize)
+                        .getResultList();
+                if (ids.isEmpty()) {
+                    return null;
+                }
+                long fromId = ids.get(0);
+                long toId = ids.get(ids.size() - 1);
+                //update versioned: 낙관적 락을 사용하는 다른 트랜잭션이 이 변경을 덮어쓰지 못하게 version 도 올린다.
+                int updated = em.createQuery("update versioned Member m set m.age = m.age + 1" +
+                                " where m.age >= :age and m.id between :fromId and :toId")
+                        .setParameter("age", age)
+                        .setParameter("fromId", fromId)
+                        .setParameter("toId", toId)
+                        .executeUpdate();
+                return new long[]{fromId, toId, updated};
+            });
+            if (chunk == null) {
+                return total;
+            }
+            lastId = chunk[1];
+            total += chunk[2];
+            detachUpdatedMembers(age, chunk[0], chunk[1]);
+            listener.onChunk(lastId, maxId, (int) chunk[2], total);
+        }
+    }
+
+    //OSIV 등으로 열려있는 영속성 컨텍스트에서 이번 청크로 값이 바뀐 회원만 분리한다. (clearAutomatically 처럼 전부 비우지 않는다.)
+    //쿼리 캐시는 하이버네이트가 벌크 연산 시 member 테이블 기준으로 무효화한다.
+    private void detachUpdatedMembers(int age, long fromId, long toId) {
+        EntityManager current = EntityManagerFactoryUtils.getTransactionalEntityManager(em.getEntityManagerFactory());
+        if (current == null) {
+            return;
+        }
+        for (Map.Entry<Object, EntityEntry> entry : current.unwrap(SessionImplementor.class)
+                .getPersistenceContextInternal().reentrantSafeEntityEntries()) {
+            if (entry.getKey() instanceof Member member
+                    && member.getId() >= fromId && member.getId() <= toId && member.getAge() >= age) {
+                current.detach(member);
+            }
+        }
+    }
 }
@@ -0,0 +1,48 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+import study.datajpa.entity.Member;
+
+//회원 검색 조건. 값이 비어 있는 조건은 검색에 사용하지 않는다.
+@Getter
+@Setter
+public class MemberSearchCondition {
+
+    static final int TEAM_NAME = 1;
+    static final int USERNAME = 1 << 1;
+
+    private String teamName;
+    private String username;
+
+    public MemberSearchCondition() {
+    }
+
+    public MemberSearchCondition(String teamName, String username) {
+        this.teamName = teamName;
+        this.username = username;
+    }
+
+    //쿼리 형태. 값이 달라도 사용하는 조건이 같으면 같은 형태이고, 같은 JPQL 을 사용한다.
+    int shape() {
+        int shape = 0;
+        if (StringUtils.hasText(teamName)) {
+            shape |= TEAM_NAME;
+        }
+        if (StringUtils.hasText(username)) {
+            shape |= USERNAME;
+        }
+        return shape;
+    }
+
+    //같은 조건의 Specification. 조회할 때마다 Criteria 를 새로 만들고 SQL 로 다시 변환한다. (비교용)
+    public Specification<Member> toSpecification() {
+        Specification<Member> spec = Specification.where(MemberSpec.teamName(teamName));
+        if (StringUtils.hasText(username)) {
+            spec = spec.and(MemberSpec.username(username));
+        }
+        return spec;
+    }
+}
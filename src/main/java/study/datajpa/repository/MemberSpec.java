@@ -15,7 +15,7 @@ public class MemberSpec {  //JPA Criteria를 사용한다.
     public static Specification<Member> teamName(final String teamName) {
         return (root, query, builder) -> {
 
-            if(StringUtils.isEmpty(teamName)) {
+            if (!StringUtils.hasText(teamName)) {  // MemberSearchCondition 과 같은 기준: null, 빈 문자열, 공백만 있으면 조건 없음
                 return null;
             }
 
@@ -1,5 +1,8 @@
 package study.datajpa.repository;
 
+import study.datajpa.projection.ClosedProjection;
+
+@ClosedProjection  // 컴파일 시 NestedClosedProjectionsImpl(username, teamName) 생성
 public interface NestedClosedProjections {
     String getUsername();
     TeamInfo getTeam();
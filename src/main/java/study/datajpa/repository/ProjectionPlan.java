@@ -0,0 +1,218 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.ProjectionInformation;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+//동적 프로젝션(Class<T> 파라미터) 타입별 조회 계획. 타입마다 한 번만 만들어서 재사용한다.
+//- DTO 클래스, @ClosedProjection 인터페이스(생성된 Impl): 생성자 파라미터 이름으로 필요한 컬럼만 select 하고 MethodHandle 로 생성
+//  파라미터 이름이 엔티티 속성이면 m.속성, 연관 엔티티 이름 + 속성이면 조인해서 연관.속성 (예: teamName -> t0.name)
+//- 엔티티 자신: 엔티티를 그대로 반환
+//- 생성된 구현이 없는 닫힌 인터페이스: 프로젝션 입력 프로퍼티만 select 해서 Map 으로 담고 스프링 데이터 프록시로 감싼다.
+//  연관 엔티티를 반환하는 getter(중첩 프로젝션)는 조인한 연관 엔티티를 select 한다.
+//- 열린 프로젝션(@Value): 어떤 속성을 쓸지 알 수 없으므로 엔티티를 조회해서 스프링 데이터 프록시로 감싼다.
+final class ProjectionPlan {
+
+    private final Class<?> type;
+    private final String jpql;
+    private final MethodHandle constructor;  // (Object[])Object. 생성자 표현식이 아니면 null
+    private final List<String> properties;  // 닫힌 인터페이스의 select 순서대로의 프로퍼티 이름. Map 기반 프록시가 아니면 null
+    private final boolean entity;
+
+    private ProjectionPlan(Class<?> type, String jpql, MethodHandle constructor, List<String> properties, boolean entity) {
+        this.type = type;
+        this.jpql = jpql;
+        this.constructor = constructor;
+        this.properties = properties;
+        this.entity = entity;
+    }
+
+    //where 는 루트 엔티티 별칭 m 을 사용한다. 예) "m.username = :username"
+    static ProjectionPlan create(Class<?> type, EntityType<?> root, String where, ProjectionFactory projectionFactory) {
+        String from = " from " + root.getName() + " m";
+        if (type.isAssignableFrom(root.getJavaType())) {
+            return new ProjectionPlan(type, "select m" + from + " where " + where, null, null, true);
+        }
+
+        Class<?> implementation = implementationOf(type);
+        if (implementation == null) {
+            return interfacePlan(type, root, from, where, projectionFactory.getProjectionInformation(type));
+        }
+
+        Constructor<?> constructor = selectConstructor(implementation, root);
+        Map<String, String> joins = new LinkedHashMap<>();
+        List<String> columns = new ArrayList<>();
+        for (Parameter parameter : constructor.getParameters()) {
+            columns.add(path(parameter.getName(), root, joins));
+        }
+
+        StringBuilder jpql = new StringBuilder("select ").append(String.join(", ", columns)).append(from);
+        joins.forEach((association, alias) -> jpql.append(" left join m.").append(association).append(' ').append(alias));
+        jpql.append(" where ").append(where);
+        return new ProjectionPlan(type, jpql.toString(), spreader(constructor), null, false);
+    }
+
+    private static ProjectionPlan interfacePlan(Class<?> type, EntityType<?> root, String from, String where,
+                                                ProjectionInformation information) {
+        if (!information.isClosed()) {
+            return new ProjectionPlan(type, "select m" + from + " where " + where, null, null, false);
+        }
+
+        Map<String, String> joins = new LinkedHashMap<>();
+        List<String> properties = new ArrayList<>();
+        List<String> columns = new ArrayList<>();
+        for (PropertyDescriptor property : information.getInputProperties()) {
+            String name = property.getName();
+            Attribute<?, ?> attribute = attribute(root, name);
+            if (attribute != null && isSingularAssociation(attribute)) {
+                columns.add(joins.computeIfAbsent(name, key -> "t" + joins.size()));  // 중첩 프로젝션은 연관 엔티티를 프록시가 다시 감싼다.
+            } else if (attribute != null && !attribute.isAssociation()) {
+                columns.add("m." + name);
+            } else {
+                throw new IllegalArgumentException(type.getName() + " 의 " + name + " 을 " + root.getName() + " 속성으로 조회할 수 없습니다.");
+            }
+            properties.add(name);
+        }
+
+        StringBuilder jpql = new StringBuilder("select ").append(String.join(", ", columns)).append(from);
+        joins.forEach((association, alias) -> jpql.append(" left join m.").append(association).append(' ').append(alias));
+        jpql.append(" where ").append(where);
+        return new ProjectionPlan(type, jpql.toString(), null, List.copyOf(properties), false);
+    }
+
+    private static boolean isSingularAssociation(Attribute<?, ?> attribute) {
+        return attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.MANY_TO_ONE
+                || attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.ONE_TO_ONE;
+    }
+
+    String getJpql() {
+        return jpql;
+    }
+
+    boolean isEntity() {
+        return entity;
+    }
+
+    //조회 결과 한 행을 프로젝션으로 변환한다. select 컬럼이 하나면 행이 배열이 아니다.
+    Object map(Object row, ProjectionFactory projectionFactory) {
+        if (entity) {
+            return row;
+        }
+        if (properties != null) {
+            Object[] values = row instanceof Object[] array ? array : new Object[]{row};
+            Map<String, Object> source = new LinkedHashMap<>();
+            for (int i = 0; i < values.length; i++) {
+                source.put(properties.get(i), values[i]);
+            }
+            return projectionFactory.createProjection(type, source);
+        }
+        if (constructor == null) {
+            return projectionFactory.createProjection(type, row);
+        }
+        try {
+            return (Object) constructor.invokeExact(row instanceof Object[] values ? values : new Object[]{row});
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(type.getName() + " 프로젝션 생성 실패", e);
+        }
+    }
+
+    //인터페이스면 ClosedProjectionProcessor 가 생성한 {이름}Impl, 클래스면 그 자신. 생성된 구현이 없는 인터페이스는 null
+    //중첩 인터페이스는 바이너리 이름의 $ 를 _ 로 바꾼 이름이다. 예) MemberRepositoryTest.UsernameTeam -> MemberRepositoryTest_UsernameTeamImpl
+    private static Class<?> implementationOf(Class<?> type) {
+        if (!type.isInterface()) {
+            return type;
+        }
+        String packageName = type.getPackageName();
+        String name = packageName.isEmpty() ? type.getName() : type.getName().substring(packageName.length() + 1);
+        String implementationName = (packageName.isEmpty() ? "" : packageName + ".") + name.replace('$', '_') + "Impl";
+        try {
+            Class<?> implementation = Class.forName(implementationName, true, type.getClassLoader());
+            return type.isAssignableFrom(implementation) ? implementation : null;
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    //파라미터가 가장 많으면서 모든 파라미터 이름을 엔티티 속성으로 해석할 수 있는 생성자
+    private static Constructor<?> selectConstructor(Class<?> implementation, EntityType<?> root) {
+        return Arrays.stream(implementation.getDeclaredConstructors())
+                .sorted(Comparator.comparingInt(Constructor<?>::getParameterCount).reversed())
+                .filter(constructor -> constructor.getParameterCount() > 0)
+                .filter(constructor -> Arrays.stream(constructor.getParameters())
+                        .allMatch(parameter -> parameter.isNamePresent() && resolvable(parameter.getName(), root)))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(implementation.getName()
+                        + " 에 " + root.getName() + " 속성 이름으로 된 생성자가 없습니다. (컴파일 옵션 -parameters 필요)"));
+    }
+
+    private static boolean resolvable(String name, EntityType<?> root) {
+        try {
+            path(name, root, new LinkedHashMap<>());
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static String path(String name, EntityType<?> root, Map<String, String> joins) {
+        Attribute<?, ?> attribute = attribute(root, name);
+        if (attribute != null && !attribute.isAssociation()) {
+            return "m." + name;
+        }
+        for (Attribute<?, ?> association : root.getAttributes()) {
+            if (!isSingularAssociation(association)) {
+                continue;
+            }
+            String prefix = association.getName();
+            if (name.length() <= prefix.length() || !name.startsWith(prefix) || !Character.isUpperCase(name.charAt(prefix.length()))) {
+                continue;
+            }
+            String nestedName = Character.toLowerCase(name.charAt(prefix.length())) + name.substring(prefix.length() + 1);
+            ManagedType<?> target = (ManagedType<?>) ((SingularAttribute<?, ?>) association).getType();
+            Attribute<?, ?> nested = attribute(target, nestedName);
+            if (nested != null && !nested.isAssociation()) {
+                String alias = joins.computeIfAbsent(prefix, key -> "t" + joins.size());
+                return alias + "." + nestedName;
+            }
+        }
+        throw new IllegalArgumentException(root.getName() + " 에서 " + name + " 속성을 찾을 수 없습니다.");
+    }
+
+    private static Attribute<?, ?> attribute(ManagedType<?> type, String name) {
+        for (Attribute<?, ?> attribute : type.getAttributes()) {
+            if (attribute.getName().equals(name)) {
+                return attribute;
+            }
+        }
+        return null;
+    }
+
+    private static MethodHandle spreader(Constructor<?> constructor) {
+        try {
+            constructor.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor);
+            int count = constructor.getParameterCount();
+            return handle.asType(MethodType.genericMethodType(count)).asSpreader(Object[].class, count);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(constructor + " 에 접근할 수 없습니다.", e);
+        }
+    }
+}
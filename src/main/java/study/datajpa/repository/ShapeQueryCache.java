@@ -0,0 +1,41 @@
+package study.datajpa.repository;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+//쿼리 형태(shape) -> JPQL 캐시.
+//같은 형태면 같은 JPQL 문자열을 사용하므로 하이버네이트 쿼리 플랜 캐시(hibernate.query.plan_cache_max_size)에서
+//파싱/SQL 변환 결과를 재사용하고 파라미터만 다시 바인딩한다. Criteria(Specification) 는 플랜 캐시를 사용하지 못한다.
+@Component
+public class ShapeQueryCache {
+
+    private final Map<Object, String> queries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public String get(Object shape, Function<Object, String> compiler) {
+        String jpql = queries.get(shape);
+        if (jpql != null) {
+            hits.increment();
+            return jpql;
+        }
+        misses.increment();
+        return queries.computeIfAbsent(shape, compiler);
+    }
+
+    public int size() {
+        return queries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+}
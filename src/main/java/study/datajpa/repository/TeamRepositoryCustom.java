@@ -0,0 +1,9 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Team;
+
+public interface TeamRepositoryCustom {
+
+    //대량 저장. MemberRepositoryCustom.saveAllBatched 와 같다. (batchSize 건마다 JDBC batch insert 후 저장한 팀만 분리)
+    int saveAllBatched(Iterable<Team> teams, int batchSize);
+}
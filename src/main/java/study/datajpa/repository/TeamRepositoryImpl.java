@@ -0,0 +1,18 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Team;
+
+@RequiredArgsConstructor
+public class TeamRepositoryImpl implements TeamRepositoryCustom {
+
+    private final EntityManager em;
+
+    @Override
+    @Transactional
+    public int saveAllBatched(Iterable<Team> teams, int batchSize) {
+        return BatchInserts.persistAll(em, teams, batchSize);
+    }
+}
@@ -1,7 +1,9 @@
 package study.datajpa.repository;
 
 import org.springframework.beans.factory.annotation.Value;
+import study.datajpa.projection.ClosedProjection;
 
+@ClosedProjection  // 컴파일 시 UserNameOnlyImpl 생성. 열린 프로젝션(@Value)으로 바꾸려면 애노테이션을 제거해야 한다.
 public interface UserNameOnly {
 
 //    @Value("#{target.username + ' ' + target.age}") open projections
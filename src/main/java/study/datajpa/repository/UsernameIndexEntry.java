@@ -0,0 +1,9 @@
+package study.datajpa.repository;
+
+import study.datajpa.projection.ClosedProjection;
+
+@ClosedProjection  // 컴파일 시 UsernameIndexEntryImpl(id, username) 생성
+public interface UsernameIndexEntry {
+    Long getId();
+    String getUsername();
+}
@@ -0,0 +1,24 @@
+package study.datajpa.retry;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+//낙관적 락 충돌(OptimisticLockingFailureException) 시 메소드 전체를 다시 실행한다.
+//재시도는 트랜잭션 바깥에서 해야 새 트랜잭션으로 최신 version 을 다시 읽을 수 있으므로 @Transactional 메소드에 함께 선언한다.
+//이미 진행 중인 트랜잭션 안에서 호출되면 재시도하지 않는다. (바깥 트랜잭션이 rollback-only 가 되기 때문)
+//
+//예) @OptimisticRetry(maxAttempts = 5, backoffMillis = 10)
+//    @Transactional
+//    public void increaseAge(String username) { ... }
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface OptimisticRetry {
+
+    int maxAttempts() default 3;
+
+    long backoffMillis() default 20;  // 첫 재시도 대기 시간. 재시도마다 multiplier 배로 늘고, 0.5 ~ 1.5 배 지터를 준다.
+
+    double multiplier() default 2.0;
+}
@@ -0,0 +1,42 @@
+package study.datajpa.retry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+//트랜잭션 어드바이저(LOWEST_PRECEDENCE)보다 먼저 실행되어야 재시도마다 새 트랜잭션이 시작된다.
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class OptimisticRetryAspect {
+
+    @Around("@annotation(retry)")
+    public Object retry(ProceedingJoinPoint joinPoint, OptimisticRetry retry) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        long backoff = retry.backoffMillis();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= retry.maxAttempts()) {
+                    throw e;
+                }
+                log.debug("낙관적 락 충돌, 재시도 {}/{} {}", attempt, retry.maxAttempts(), joinPoint.getSignature().toShortString());
+                Thread.sleep((long) (backoff * ThreadLocalRandom.current().nextDouble(0.5, 1.5)));
+                backoff = (long) (backoff * retry.multiplier());
+            }
+        }
+    }
+}
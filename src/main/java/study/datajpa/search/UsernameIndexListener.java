@@ -0,0 +1,31 @@
+package study.datajpa.search;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import study.datajpa.entity.Member;
+
+//Member 엔티티 리스너. 변경을 UsernamePrefixIndex 에 넘기면 트랜잭션 단위로 모았다가 커밋된 뒤에 한 번에 반영한다. (롤백되면 버린다.)
+//하이버네이트가 스프링 빈 컨테이너로 생성하므로 생성자 주입을 받을 수 있다.
+//인덱스는 MemberRepository -> entityManagerFactory 에 의존하므로 직접 주입하면 entityManagerFactory 생성 중에 순환 참조가 된다.
+//ObjectProvider 로 받아서 엔티티 이벤트가 발생했을 때 꺼낸다.
+public class UsernameIndexListener {
+
+    private final ObjectProvider<UsernamePrefixIndex> index;
+
+    public UsernameIndexListener(ObjectProvider<UsernamePrefixIndex> index) {
+        this.index = index;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Member member) {
+        index.getObject().record(member.getId(), member.getUsername());
+    }
+
+    @PostRemove
+    public void onRemove(Member member) {
+        index.getObject().record(member.getId(), null);
+    }
+}
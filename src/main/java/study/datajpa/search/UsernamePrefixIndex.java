@@ -0,0 +1,253 @@
+package study.datajpa.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.UsernameIndexEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+//username 자동완성용 메모리 인덱스. (username, member_id) 순으로 정렬한 배열 두 개(String[], long[])만 가진다.
+//조회: 접두어의 시작 위치를 이진 탐색하고 limit 건까지 순서대로 읽는다. DB 를 거치지 않으므로 수 마이크로초
+//변경: 트랜잭션 커밋 후 변경분을 한 번에 반영한 새 배열을 만들어 교체한다. (copy-on-write)
+//     조회는 락 없이 교체 전 또는 교체 후의 배열 하나만 보므로 변경 중에도 안전하다.
+//     대신 커밋마다 배열 두 개 전체(회원 수 n)를 복사하고 병합하므로 O(n) 이고, 전역 락 하나로 직렬화된다.
+//     (회원 100만 명이면 커밋당 수 ms) 그래서 락을 기다리는 동안 다른 커밋의 변경분을 모아서 한 번의 복사로 같이 반영한다.
+//     쓰기가 훨씬 많아지면 배열 대신 정렬된 트리나 구간별로 나눈 배열로 바꿔야 한다.
+//엔티티 리스너(UsernameIndexListener)를 거치지 않는 변경은 반영되지 않는다.
+//MemberRepository 의 벌크 delete 는 id 를 알면 removeAfterCommit, 전체 delete 는 rebuildAfterCommit 을 호출하고,
+//그 외 벌크 연산이나 네이티브 쿼리는 rebuild() 를 호출한다.
+@Slf4j
+@Component
+public class UsernamePrefixIndex {
+
+    private static final Snapshot EMPTY = new Snapshot(new String[0], new long[0]);
+    private static final Object PENDING_KEY = new Object();
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate loadTransaction;
+    private volatile Snapshot snapshot = EMPTY;
+    private final Map<Long, String> waiting = new LinkedHashMap<>();  // 커밋됐지만 아직 반영 전인 변경분. waiting 으로 동기화
+
+    public UsernamePrefixIndex(MemberRepository memberRepository, PlatformTransactionManager transactionManager) {
+        this.memberRepository = memberRepository;
+        //커밋 후(afterCompletion)에도 호출되므로 끝난 트랜잭션에 참여하지 않도록 항상 새 트랜잭션에서 읽는다.
+        //readOnly 로 하지 않는 이유: datasource.routing 이면 replica 로 가서 방금 커밋한 변경을 못 볼 수 있다.
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    //DB 에서 다시 적재한다. 적재 중에 커밋된 변경은 락을 기다렸다가 새 배열에 반영된다.
+    //새 트랜잭션에서 읽으므로 호출한 쪽 트랜잭션의 커밋 전 변경은 보이지 않는다. (커밋 후에는 rebuildAfterCommit)
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        List<UsernameIndexEntry> entries = new ArrayList<>(loadTransaction.execute(status -> memberRepository.findUsernameIndexEntries()));
+        entries.sort((a, b) -> compare(a.getUsername(), a.getId(), b.getUsername(), b.getId()));
+
+        String[] usernames = new String[entries.size()];
+        long[] ids = new long[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            usernames[i] = entries.get(i).getUsername().intern();  // 같은 username 은 문자열 하나를 공유
+            ids[i] = entries.get(i).getId();
+        }
+        snapshot = new Snapshot(usernames, ids);
+        log.info("username 접두어 인덱스 적재: {}건, {}ms", ids.length, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    //prefix 로 시작하는 회원을 username, member_id 순으로 최대 limit 건
+    public List<MemberDto> search(String prefix, int limit) {
+        Snapshot current = snapshot;
+        int from = lowerBound(current, prefix, Long.MIN_VALUE);
+        List<MemberDto> result = new ArrayList<>(Math.min(limit, 16));
+        for (int i = from; i < current.usernames.length && result.size() < limit && current.usernames[i].startsWith(prefix); i++) {
+            result.add(new MemberDto(current.ids[i], current.usernames[i], null));
+        }
+        return result;
+    }
+
+    public int size() {
+        return snapshot.ids.length;
+    }
+
+    //엔티티 리스너가 호출한다. username 이 null 이면 삭제(또는 username 이 없어서 인덱스 대상이 아님)
+    void record(Long id, String username) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Map<Long, String> change = new LinkedHashMap<>();
+            change.put(id, username);
+            apply(change);
+            return;
+        }
+        pending().put(id, username);
+    }
+
+    //벌크 delete 로 삭제한 회원을 커밋 후에 뺀다.
+    public void removeAfterCommit(Collection<Long> ids) {
+        Map<Long, String> changes = TransactionSynchronizationManager.isSynchronizationActive() ? pending() : new LinkedHashMap<>();
+        for (Long id : ids) {
+            changes.put(id, null);
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(changes);
+        }
+    }
+
+    //어떤 회원이 바뀌었는지 모르는 벌크 연산(전체 delete 등) 후에 커밋되면 다시 적재한다.
+    public void rebuildAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rebuild();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    rebuild();
+                }
+            }
+        });
+    }
+
+    //현재 트랜잭션의 변경분. 처음 호출할 때 커밋 후 반영하도록 등록한다.
+    @SuppressWarnings("unchecked")
+    private Map<Long, String> pending() {
+        Map<Long, String> pending = (Map<Long, String>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+        if (pending != null) {
+            return pending;
+        }
+        Map<Long, String> newPending = new LinkedHashMap<>();
+        TransactionSynchronizationManager.bindResource(PENDING_KEY, newPending);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {  // REQUIRES_NEW 내부 트랜잭션의 변경은 따로 모은다.
+                TransactionSynchronizationManager.unbindResource(PENDING_KEY);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(PENDING_KEY, newPending);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+                if (status == STATUS_COMMITTED) {
+                    apply(newPending);
+                }
+            }
+        });
+        return newPending;
+    }
+
+    //커밋된 변경분. id -> 새 username (null 이면 삭제)
+    //먼저 대기열에 넣고 락을 얻은 스레드가 그때까지 쌓인 변경분을 모두 꺼내 한 번에 병합한다.
+    //앞선 스레드가 내 변경분까지 반영했으면 꺼낼 것이 없으므로 바로 끝난다. (반환 시점에는 항상 반영되어 있다.)
+    void apply(Map<Long, String> changes) {
+        synchronized (waiting) {
+            waiting.putAll(changes);
+        }
+        synchronized (this) {
+            Map<Long, String> drained;
+            synchronized (waiting) {
+                if (waiting.isEmpty()) {
+                    return;
+                }
+                drained = new LinkedHashMap<>(waiting);
+                waiting.clear();
+            }
+            merge(drained);
+        }
+    }
+
+    private void merge(Map<Long, String> changes) {
+        Snapshot current = snapshot;
+        changes.entrySet().removeIf(change -> change.getValue() != null && contains(current, change.getValue(), change.getKey()));  // username 이 그대로인 수정 (예: 나이만 변경)
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        //변경된 id 의 기존 항목을 뺀다.
+        long[] changedIds = changes.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        int kept = 0;
+        String[] usernames = new String[current.ids.length + changes.size()];
+        long[] ids = new long[usernames.length];
+        List<Map.Entry<Long, String>> added = new ArrayList<>();
+        for (Map.Entry<Long, String> change : changes.entrySet()) {
+            if (change.getValue() != null) {
+                added.add(change);
+            }
+        }
+        added.sort((a, b) -> compare(a.getValue(), a.getKey(), b.getValue(), b.getKey()));
+
+        //정렬된 기존 항목과 추가 항목을 병합
+        int a = 0;
+        for (int i = 0; i < current.ids.length; i++) {
+            if (Arrays.binarySearch(changedIds, current.ids[i]) >= 0) {
+                continue;
+            }
+            while (a < added.size() && compare(added.get(a).getValue(), added.get(a).getKey(), current.usernames[i], current.ids[i]) < 0) {
+                usernames[kept] = added.get(a).getValue().intern();
+                ids[kept++] = added.get(a++).getKey();
+            }
+            usernames[kept] = current.usernames[i];
+            ids[kept++] = current.ids[i];
+        }
+        while (a < added.size()) {
+            usernames[kept] = added.get(a).getValue().intern();
+            ids[kept++] = added.get(a++).getKey();
+        }
+        snapshot = new Snapshot(Arrays.copyOf(usernames, kept), Arrays.copyOf(ids, kept));
+    }
+
+    private static boolean contains(Snapshot snapshot, String username, long id) {
+        int position = lowerBound(snapshot, username, id);
+        return position < snapshot.ids.length && snapshot.ids[position] == id && snapshot.usernames[position].equals(username);
+    }
+
+    //(username, id) 이상인 첫 위치
+    private static int lowerBound(Snapshot snapshot, String username, long id) {
+        int low = 0;
+        int high = snapshot.ids.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(snapshot.usernames[mid], snapshot.ids[mid], username, id) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(String username1, long id1, String username2, long id2) {
+        int result = username1.compareTo(username2);
+        return result != 0 ? result : Long.compare(id1, id2);
+    }
+
+    private static final class Snapshot {
+        final String[] usernames;
+        final long[] ids;
+
+        Snapshot(String[] usernames, long[] ids) {
+            this.usernames = usernames;
+            this.ids = ids;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package study.datajpa.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class MemberExportService {
+
+    private static final int FLUSH_INTERVAL = 100;  // 이 건수마다 응답 버퍼를 클라이언트로 내보낸다.
+
+    private final MemberRepository memberRepository;
+    private final EntityManager em;
+    private final ObjectMapper objectMapper;
+
+    //회원 전체를 NDJSON(한 줄에 JSON 하나)으로 내보낸다.
+    //findAll() 처럼 List 로 한 번에 올리지 않고 JDBC 커서로 한 건씩 읽어서 바로 쓰고, 영속성 컨텍스트에서 분리(detach)한다.
+    //따라서 힙 사용량은 테이블 크기와 무관하고, 첫 데이터는 조회가 끝나기 전에 클라이언트에 도착한다.
+    //Stream 은 JDBC 커서가 열려있는 동안만 읽을 수 있으므로 반드시 트랜잭션 안에서 사용해야 한다.
+    @Transactional(readOnly = true)
+    public long exportNdjson(OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<Member> members = memberRepository.streamAllBy()) {
+            Iterator<Member> iterator = members.iterator();
+            while (iterator.hasNext()) {
+                Member member = iterator.next();
+                String teamName = member.getTeam() == null ? null : member.getTeam().getName();  // fetch join 으로 이미 로딩되어 있다.
+
+                out.write(objectMapper.writeValueAsBytes(new MemberDto(member.getId(), member.getUsername(), teamName)));
+                out.write('\n');
+                em.detach(member);  // Team 은 회원들이 공유하고 개수가 적으므로 분리하지 않는다.
+
+                if (++count % FLUSH_INTERVAL == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        return count;
+    }
+}
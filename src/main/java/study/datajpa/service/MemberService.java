@@ -0,0 +1,33 @@
+package study.datajpa.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.retry.OptimisticRetry;
+
+@Service
+@RequiredArgsConstructor
+public class MemberService {
+
+    private final MemberRepository memberRepository;
+
+    //비관적 락: select ... for update 로 행 락을 잡고 수정한다. 동시에 수정하는 트랜잭션은 락을 기다린다.
+    @Transactional
+    public void increaseAgeWithLock(String username) {
+        for (Member member : memberRepository.findLockByUsername(username)) {
+            member.setAge(member.getAge() + 1);
+        }
+    }
+
+    //낙관적 락: 락 없이 읽고, 커밋(flush) 시점에 version 으로 충돌을 검사한다. 충돌하면 새 트랜잭션으로 다시 실행한다.
+    //경합이 적은 수정은 락 대기가 없어 더 빠르고, 경합이 많으면 재시도 비용이 커진다.
+    @OptimisticRetry(maxAttempts = 10, backoffMillis = 5)
+    @Transactional
+    public void increaseAge(String username) {
+        for (Member member : memberRepository.findListByUsername(username)) {
+            member.setAge(member.getAge() + 1);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package study.datajpa.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//샘플 회원(user0 ~ user99) 저장. 예전에는 MemberController 의 @PostConstruct 에서 저장해서 컨텍스트 초기화(시작 시간)에 포함되었다.
+//시작이 끝난 뒤(ApplicationReadyEvent)에 저장하고, member.seed.async=true 면 별도 스레드에서 저장해서 첫 요청이 기다리지 않게 한다.
+//AOT 는 빌드할 때 @Conditional 결과를 고정하므로, member.seed.enabled 는 빈 등록 조건 대신 실행 시점에 확인한다. (TrainingRun 과 같음)
+@Slf4j
+@Component
+public class SampleMemberSeeder {
+
+    private final MemberRepository memberRepository;
+    private final boolean enabled;
+    private final boolean async;
+
+    public SampleMemberSeeder(MemberRepository memberRepository,
+                              @Value("${member.seed.enabled:true}") boolean enabled,
+                              @Value("${member.seed.async:false}") boolean async) {
+        this.memberRepository = memberRepository;
+        this.enabled = enabled;
+        this.async = async;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        if (!async) {
+            seed();
+            return;
+        }
+        Thread seeder = new Thread(() -> {
+            try {
+                seed();
+            } catch (RuntimeException e) {
+                log.error("샘플 회원 저장 실패", e);
+            }
+        }, "sample-member-seeder");
+        seeder.setDaemon(true);
+        seeder.start();
+    }
+
+    private void seed() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            members.add(new Member("user" + i, i));
+        }
+        memberRepository.saveAllBatched(members, 100);  // save() 반복 대신 JDBC batch insert
+    }
+}
@@ -0,0 +1,62 @@
+package study.datajpa.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+//CDS(class data sharing) 아카이브를 만드는 학습 실행. startup.training-run=true 일 때만 동작한다. (./gradlew cdsArchive)
+//AOT 는 빌드할 때 @Conditional 결과를 고정하므로, 실행할 때 넘기는 이 설정은 빈 등록 조건 대신 실행 시점에 확인한다.
+//시작이 끝나면 첫 요청 경로를 한 번씩 호출해서 MVC, Jackson, 쿼리 실행 클래스까지 로딩한 뒤 종료한다.
+//-XX:ArchiveClassesAtExit 로 실행하면 JVM 이 종료할 때 로딩된 클래스를 아카이브에 저장한다.
+@Slf4j
+@Component
+public class TrainingRun {
+
+    private static final String[] WARM_UP_PATHS = {"/members?page=1&size=1", "/members/search?prefix=user&limit=1"};
+
+    private final boolean enabled;
+
+    public TrainingRun(@Value("${startup.training-run:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpAndExit(ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        if (context instanceof WebServerApplicationContext webContext) {
+            warmUp(webContext.getWebServer().getPort());
+        }
+        log.info("학습 실행 종료");
+        System.exit(SpringApplication.exit(context));
+    }
+
+    private void warmUp(int port) {
+        HttpClient client = HttpClient.newHttpClient();
+        for (String path : WARM_UP_PATHS) {
+            try {
+                HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+                        HttpResponse.BodyHandlers.discarding());
+                log.info("학습 요청 {} -> {}", path, response.statusCode());
+            } catch (IOException e) {
+                log.warn("학습 요청 실패 {}", path, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
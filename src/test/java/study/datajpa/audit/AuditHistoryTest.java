@@ -0,0 +1,79 @@
+package study.datajpa.audit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.AuditAction;
+import study.datajpa.entity.AuditHistory;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.AuditHistoryRepository;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AuditHistoryTest {  // 커밋된 변경만 이력이 남으므로 @Transactional 을 사용하지 않는다.
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    AuditHistoryRepository auditHistoryRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Test
+    void recordInsertAndUpdate() throws Exception {
+        //given
+        Member member = transactionTemplate.execute(status -> {
+            Team team = teamRepository.save(new Team("auditTeam"));
+            return memberRepository.save(new Member("auditMember", 10, team));
+        });
+
+        //when
+        transactionTemplate.executeWithoutResult(status ->
+                memberRepository.findById(member.getId()).get().setAge(11));
+
+        //then: 이력은 별도 스레드가 저장하므로 기다린다.
+        List<AuditHistory> histories = awaitHistories("Member", member.getId(), 2);
+        assertThat(histories).extracting("action").containsExactly(AuditAction.INSERT, AuditAction.UPDATE);
+
+        AuditHistory update = histories.get(1);
+        assertThat(update.getBeforeState()).contains("\"age\":10").contains("\"team\":" + member.getTeam().getId());
+        assertThat(update.getAfterState()).contains("\"age\":11").doesNotContain("members");
+        assertThat(update.getAuditor()).isEqualTo(memberRepository.findById(member.getId()).get().getLastModifiedBy());
+        assertThat(histories.get(0).getBeforeState()).isNull();
+    }
+
+    @Test
+    void auditorPerTransaction() {
+        //when
+        List<Member> members = transactionTemplate.execute(status -> List.of(
+                memberRepository.save(new Member("auditor1", 10)),
+                memberRepository.save(new Member("auditor2", 10))));
+        Member other = transactionTemplate.execute(status -> memberRepository.save(new Member("auditor3", 10)));
+
+        //then: 같은 트랜잭션에서 저장한 엔티티는 등록자가 같고, 다른 트랜잭션은 다르다.
+        assertThat(members.get(0).getCreatedBy()).isNotNull().isEqualTo(members.get(1).getCreatedBy());
+        assertThat(other.getCreatedBy()).isNotEqualTo(members.get(0).getCreatedBy());
+    }
+
+    private List<AuditHistory> awaitHistories(String entityName, Long id, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        List<AuditHistory> histories = auditHistoryRepository.findByEntityNameAndEntityIdOrderByIdAsc(entityName, String.valueOf(id));
+        while (histories.size() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            histories = auditHistoryRepository.findByEntityNameAndEntityIdOrderByIdAsc(entityName, String.valueOf(id));
+        }
+        return histories;
+    }
+}
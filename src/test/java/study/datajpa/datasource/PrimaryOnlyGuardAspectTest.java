@@ -0,0 +1,38 @@
+package study.datajpa.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class PrimaryOnlyGuardAspectTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    void rejectWriteAndLockInReadOnlyTransaction() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        assertThatThrownBy(() -> readOnly.executeWithoutResult(status -> memberRepository.bulkAgePlus(5000)))
+                .isInstanceOf(IllegalTransactionStateException.class);
+        assertThatThrownBy(() -> readOnly.executeWithoutResult(status -> memberRepository.findLockByUsername("none")))
+                .isInstanceOf(IllegalTransactionStateException.class);
+
+        //readOnly 가 아닌 트랜잭션과 조회 메소드는 그대로 실행된다.
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        assertThat(readWrite.execute(status -> memberRepository.findLockByUsername("none"))).isEmpty();
+        assertThat(readOnly.execute(status -> memberRepository.findByUsername("none"))).isEmpty();
+    }
+}
@@ -0,0 +1,61 @@
+package study.datajpa.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadWriteRoutingDataSourceTest {
+
+    DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:primary", "sa", "");
+    ReplicaDataSource replica0 = new ReplicaDataSource("replica-0", new DriverManagerDataSource("jdbc:h2:mem:replica0", "sa", ""));
+    ReplicaDataSource replica1 = new ReplicaDataSource("replica-1", new DriverManagerDataSource("jdbc:h2:mem:replica1", "sa", ""));
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void routeByTransactionReadOnly() throws Exception {
+        ReadWriteRoutingDataSource dataSource = routing(new RoundRobinReplicaSelector());
+
+        assertThat(url(dataSource)).isEqualTo("jdbc:h2:mem:primary");  // 쓰기 또는 트랜잭션 없음
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(url(dataSource)).isEqualTo("jdbc:h2:mem:replica0");
+        assertThat(url(dataSource)).isEqualTo("jdbc:h2:mem:replica1");
+        assertThat(url(dataSource)).isEqualTo("jdbc:h2:mem:replica0");
+    }
+
+    @Test
+    void leastInFlight() throws Exception {
+        ReadWriteRoutingDataSource dataSource = routing(new LeastInFlightReplicaSelector());
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        try (Connection busy = dataSource.getConnection()) {  // replica-0 사용 중
+            assertThat(replica0.getInFlight()).isEqualTo(1);
+            assertThat(url(dataSource)).isEqualTo("jdbc:h2:mem:replica1");
+        }
+        assertThat(replica0.getInFlight()).isZero();
+        assertThat(replica1.getInFlight()).isZero();
+    }
+
+    private ReadWriteRoutingDataSource routing(ReplicaSelector selector) {
+        ReadWriteRoutingDataSource dataSource = new ReadWriteRoutingDataSource(primary, List.of(replica0, replica1), selector);
+        dataSource.afterPropertiesSet();
+        return dataSource;
+    }
+
+    private String url(DataSource dataSource) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package study.datajpa.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoutingDataSourceConfigTest {
+
+    @Test
+    void bindHikariSettings() throws Exception {
+        //given
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "64")
+                .withProperty("datasource.routing.replicas[0].hikari.maximum-pool-size", "7");
+        DataSourceProperties dataSourceProperties = new DataSourceProperties();
+        dataSourceProperties.setUrl("jdbc:h2:mem:routingPrimary");
+        RoutingDataSourceProperties.Replica replica = new RoutingDataSourceProperties.Replica();
+        replica.setUrl("jdbc:h2:mem:routingReplica");
+        RoutingDataSourceProperties routingProperties = new RoutingDataSourceProperties();
+        routingProperties.setReplicas(List.of(replica));
+        RoutingDataSourceConfig config = new RoutingDataSourceConfig();
+
+        try {
+            //when
+            DataSource dataSource = config.dataSource(dataSourceProperties, routingProperties, environment);
+
+            //then: 커넥션 풀은 아직 시작하지 않았으므로 DB 없이 설정만 확인한다.
+            ReadWriteRoutingDataSource routing = (ReadWriteRoutingDataSource) ((LazyConnectionDataSourceProxy) dataSource).getTargetDataSource();
+            Map<Object, DataSource> pools = routing.getResolvedDataSources();
+            assertThat(((HikariDataSource) pools.get("primary")).getMaximumPoolSize()).isEqualTo(64);
+            assertThat(((HikariDataSource) ((ReplicaDataSource) pools.get("replica-0")).getTargetDataSource()).getMaximumPoolSize()).isEqualTo(7);
+        } finally {
+            config.destroy();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package study.datajpa.loader;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class MemberBatchLoaderTest {  // 다른 스레드에서 조회하므로 커밋된 회원이 필요하다. @Transactional 을 사용하지 않는다.
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    MemberBatchLoader loader;
+    List<Member> members;
+
+    @BeforeEach
+    void setUp() {
+        members = memberRepository.saveAll(IntStream.range(0, 7).mapToObj(i -> new Member("batchLoader" + i, i)).toList());
+        loader = new MemberBatchLoader(memberRepository, 200_000, 5, 1, 1000);  // 구간 200ms, 5건이 모이면 바로 조회
+    }
+
+    @AfterEach
+    void tearDown() {
+        loader.shutdown();
+        memberRepository.deleteAllInBatch(members);  // 벌크 delete 도 커밋 후 username 접두어 인덱스에서 빠진다.
+    }
+
+    @Test
+    void coalesceAndSingleFlight() {
+        //when: 5건이 모이면 구간을 기다리지 않고 한 번에 조회
+        List<CompletableFuture<Optional<Member>>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(loader.load(members.get(i).getId()));
+        }
+        CompletableFuture<Optional<Member>> first = futures.get(0);
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        //then
+        assertThat(loader.getBatchCount()).isEqualTo(1);
+        for (int i = 0; i < 5; i++) {
+            assertThat(futures.get(i).join()).get().extracting(Member::getUsername).isEqualTo("batchLoader" + i);
+        }
+
+        //when: 조회 중인 id 는 같은 결과를 기다린다. 5건이 안 되면 구간이 끝날 때 조회
+        CompletableFuture<Optional<Member>> five = loader.load(members.get(5).getId());
+        CompletableFuture<Optional<Member>> fiveAgain = loader.load(members.get(5).getId());
+        CompletableFuture<Optional<Member>> six = loader.load(members.get(6).getId());
+        CompletableFuture<Optional<Member>> missing = loader.load(-1L);
+
+        //then
+        assertThat(fiveAgain).isSameAs(five);
+        assertThat(six.join()).get().extracting(Member::getUsername).isEqualTo("batchLoader6");
+        assertThat(missing.join()).isEmpty();
+        assertThat(loader.getBatchCount()).isEqualTo(2);
+        assertThat(loader.getRequestCount()).isEqualTo(9);
+
+        //완료된 id 는 새로 조회한다.
+        assertThat(loader.load(members.get(0).getId())).isNotSameAs(first);
+    }
+
+    @Test
+    void failWhenSchedulingIsRejected() {
+        //given
+        loader.shutdown();
+        Long id = members.get(0).getId();
+
+        //when: 실행기가 종료되어 타이머를 걸 수 없다.
+        CompletableFuture<Optional<Member>> rejected = loader.load(id);
+
+        //then: 완료되지 않는 future 를 남기지 않고 바로 실패하며, 다음 요청도 기다리지 않는다.
+        assertThat(rejected).isCompletedExceptionally();
+        assertThatThrownBy(() -> loader.findById(id)).isInstanceOf(RejectedExecutionException.class);
+        assertThat(loader.load(id)).isNotSameAs(rejected);
+    }
+
+    @Test
+    void findByIdTimesOut() {
+        //given: 구간이 10초라 조회가 끝나지 않는 동안 50ms 만 기다린다.
+        MemberBatchLoader slowLoader = new MemberBatchLoader(memberRepository, 10_000_000, 100, 1, 50);
+
+        try {
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> slowLoader.findById(members.get(0).getId())).isInstanceOf(QueryTimeoutException.class);
+            assertThat(System.nanoTime() - start).isLessThan(5_000_000_000L);
+        } finally {
+            slowLoader.shutdown();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package study.datajpa.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncSqlLoggerTest {
+
+    private static final long ONE_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void sampleAndThreshold() {
+        SqlLogProperties properties = new SqlLogProperties();
+        properties.setSampleRate(3);
+        properties.setThresholdMillis(10);
+        AsyncSqlLogger logger = new AsyncSqlLogger(properties, message -> { });
+
+        assertThat(logger.accept(5 * ONE_MILLI, false)).isFalse();  // 기준 시간 미만
+        assertThat(logger.accept(5 * ONE_MILLI, true)).isTrue();  // 실패한 SQL 은 항상
+
+        int accepted = 0;
+        for (int i = 0; i < 9; i++) {
+            accepted += logger.accept(20 * ONE_MILLI, false) ? 1 : 0;
+        }
+        assertThat(accepted).isEqualTo(3);
+    }
+
+    @Test
+    void dropWhenFullAndDrainOnStop() {
+        SqlLogProperties properties = new SqlLogProperties();
+        properties.setBufferSize(2);
+        List<String> messages = new CopyOnWriteArrayList<>();
+        AsyncSqlLogger logger = new AsyncSqlLogger(properties, messages::add);
+
+        //쓰기 스레드가 시작되기 전이라 버퍼 크기(2)를 넘는 로그는 버려진다.
+        for (int i = 0; i < 5; i++) {
+            logger.enqueue(new AsyncSqlLogger.Entry(0, 1, ONE_MILLI, "select " + i, false));
+        }
+        assertThat(logger.getDroppedCount()).isEqualTo(3);
+
+        logger.start();
+        logger.stop();  // 버퍼에 남은 로그를 모두 쓰고 끝난다.
+
+        assertThat(logger.getWrittenCount()).isEqualTo(2);
+        assertThat(messages).hasSize(2);
+        assertThat(messages.get(0)).contains("1ms", "connection 1", "select 0");
+    }
+}
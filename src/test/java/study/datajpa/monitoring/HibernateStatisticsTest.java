@@ -0,0 +1,83 @@
+package study.datajpa.monitoring;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Example;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class HibernateStatisticsTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MonitoringController monitoringController;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @AfterEach
+    void tearDown() {
+        monitoringController.toggleHibernate(false);
+    }
+
+    @Test
+    void hibernateStatistics() {
+        //given
+        for (int i = 0; i < 3; i++) {
+            Team team = new Team("statisticsTeam" + i);
+            em.persist(team);
+            em.persist(new Member("statistics", i, team));
+        }
+        em.flush();
+        em.clear();
+        monitoringController.toggleHibernate(true);
+        monitoringController.clearHibernate();
+
+        //when
+        memberRepository.findByNames(List.of("statistics")).forEach(member -> member.getTeam().getName());
+
+        //then
+        HibernateStatisticsDto statistics = monitoringController.hibernate();
+        assertThat(statistics.isEnabled()).isTrue();
+        assertThat(statistics.getEntityLoadCount()).isGreaterThanOrEqualTo(3);  // 회원 3 (+ 2차 캐시에 없는 팀)
+        assertThat(statistics.getSecondLevelCacheHitRatio()).isBetween(0.0, 1.0);
+        assertThat(statistics.getQueries())
+                .filteredOn(query -> query.getQuery().contains("m.username in :names"))
+                .first()
+                .satisfies(query -> {
+                    assertThat(query.getExecutionCount()).isEqualTo(1);
+                    assertThat(query.getRows()).isEqualTo(3);
+                    assertThat(query.getExecutionMaxTime()).isGreaterThanOrEqualTo(query.getExecutionAvgTime());
+                });
+    }
+
+    @Test
+    void slowQueryNamesRepositoryMethod() {
+        SlowQueryListener listener = new SlowQueryListener(10);
+
+        assertThat(listener.record("select fast", TimeUnit.MILLISECONDS.toNanos(5))).isFalse();
+        assertThat(listener.record("select outside", TimeUnit.MILLISECONDS.toNanos(20))).isTrue();
+        //findBy 의 쿼리 함수는 리포지토리 호출 안에서 실행된다.
+        memberRepository.findBy(Example.of(new Member("slowQuery")), query -> listener.record("select inside", TimeUnit.MILLISECONDS.toNanos(30)));
+
+        assertThat(listener.recent()).extracting(SlowQueryDto::getSql).containsExactly("select inside", "select outside");
+        assertThat(listener.recent()).extracting(SlowQueryDto::getMethod)
+                .containsExactly("MemberRepository.findBy(Example,Function)", null);
+        assertThat(RepositoryMetricsAspect.currentMethod()).isNull();
+    }
+}
@@ -0,0 +1,18 @@
+package study.datajpa.monitoring;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+//테스트 메소드 본문에서 실행될 수 있는 SQL 개수의 상한. 넘으면 테스트가 실패한다.
+//@BeforeEach 에서 실행된 SQL 은 포함하지 않으므로 데이터 준비는 @BeforeEach 에서 하고 flush 까지 해두는 것이 좋다.
+//예) @QueryBudget(1) void findMemberFetchJoin() { ... }
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+    int value();
+}
@@ -0,0 +1,26 @@
+package study.datajpa.monitoring;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(context.getUniqueId(), QueryCounter.open(context.getDisplayName()));
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        QueryScope scope = context.getStore(NAMESPACE).remove(context.getUniqueId(), QueryScope.class);
+        scope.close();
+
+        int budget = context.getRequiredTestMethod().getAnnotation(QueryBudget.class).value();
+        if (context.getExecutionException().isEmpty() && scope.getCount() > budget) {
+            throw new AssertionError("SQL 실행 횟수가 허용치(" + budget + ")를 넘었습니다. " + scope);
+        }
+    }
+}
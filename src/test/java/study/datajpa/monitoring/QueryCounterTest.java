@@ -0,0 +1,80 @@
+package study.datajpa.monitoring;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class QueryCounterTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            Team team = new Team("nPlusOneTeam" + i);
+            em.persist(team);
+            em.persist(new Member("nPlusOne", i, team));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void normalize() {
+        assertThat(QueryCounter.normalize("select *  from member\n where username = 'AAA' and age > 10"))
+                .isEqualTo("select * from member where username = ? and age > ?");
+        assertThat(QueryCounter.normalize("select * from member where username in (?, ?, ?)"))
+                .isEqualTo(QueryCounter.normalize("select * from member where username in (?,?)"));
+    }
+
+    @Test
+    void detectNPlusOne() {
+        try (QueryScope scope = QueryCounter.open("team per member")) {
+            List<Member> members = memberRepository.findListByUsername("nPlusOne");
+            members.forEach(member -> em.createQuery("select t from Team t where t.id = :id", Team.class)  // 회원마다 team 조회
+                    .setParameter("id", member.getTeam().getId())
+                    .getSingleResult());
+
+            assertThat(scope.getCount()).isEqualTo(1 + 5);
+            assertThat(scope.getNPlusOneSuspects(5)).hasSize(1);
+        }
+    }
+
+    @Test
+    void batchFetchLazyAssociations() {
+        try (QueryScope scope = QueryCounter.open("lazy team")) {
+            List<Member> members = memberRepository.findListByUsername("nPlusOne");
+            members.forEach(member -> member.getTeam().getName());  // 첫 프록시를 초기화할 때 나머지 팀도 in 쿼리로 함께 조회
+            members.forEach(member -> member.getTeam().getMembers().size());  // 팀의 회원 컬렉션도 한 번에
+
+            assertThat(scope.getCount()).isEqualTo(1 + 1 + 1);
+            assertThat(scope.getNPlusOneSuspects(5)).isEmpty();
+        }
+    }
+
+    @Test
+    @QueryBudget(1)
+    void fetchJoinStaysWithinBudget() {
+        List<Member> members = memberRepository.findEntityGraphByUsername("nPlusOne");
+        members.forEach(member -> member.getTeam().getName());  // 이미 fetch join 으로 조회되어 추가 SQL 없음
+
+        assertThat(members).hasSize(5);
+    }
+}
@@ -0,0 +1,101 @@
+package study.datajpa.monitoring;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class RepositoryMetricsAspectTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    RepositoryMetricsAspect repositoryMetricsAspect;
+
+    @Test
+    void recordRepositoryMethods() {
+        //given
+        memberRepository.save(new Member("metrics1", 10));
+        memberRepository.save(new Member("metrics1", 20));
+
+        //when
+        memberRepository.findByUsernameAndAgeGreaterThan("metrics1", 0);  // 스프링 데이터 JPA 리포지토리
+        memberJpaRepository.findByUsernameAndAgeGreaterThan("metrics1", 0);  // @Repository 클래스
+        assertThatThrownBy(() -> memberRepository.findMemberByUsername("metrics1"))  // 2건이라 예외
+                .isInstanceOf(RuntimeException.class);
+
+        //then
+        RepositoryMethodStatisticsDto springData = statistics("MemberRepository.findByUsernameAndAgeGreaterThan(String,int)");
+        assertThat(springData.getCalls()).isGreaterThanOrEqualTo(1);
+        assertThat(springData.getRows()).isGreaterThanOrEqualTo(2);
+        assertThat(springData.getP50()).isLessThanOrEqualTo(springData.getP99());
+
+        RepositoryMethodStatisticsDto jpa = statistics("MemberJpaRepository.findByUsernameAndAgeGreaterThan(String,int)");
+        assertThat(jpa.getCalls()).isGreaterThanOrEqualTo(1);
+
+        assertThat(statistics("MemberRepository.findMemberByUsername(String)").getErrors()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void writesAreNotCountedAsRows() {
+        //given
+        RepositoryMethodStatisticsDto saveBefore = statisticsOrNull("MemberRepository.save(Object)");
+        RepositoryMethodStatisticsDto bulkBefore = statisticsOrNull("MemberRepository.bulkAgePlus(int)");
+        memberRepository.save(new Member("metrics2", 30));
+        memberRepository.save(new Member("metrics2", 40));
+
+        //when
+        int affected = memberRepository.bulkAgePlus(40);  // 최소 metrics2(40) 1건
+        memberRepository.existsById(1L);
+
+        //then
+        assertThat(affected).isGreaterThanOrEqualTo(1);
+        assertThat(statistics("MemberRepository.save(Object)").getRows()).isEqualTo(saveBefore == null ? 0 : saveBefore.getRows());
+        RepositoryMethodStatisticsDto bulk = statistics("MemberRepository.bulkAgePlus(int)");
+        assertThat(bulk.getRows()).isEqualTo(bulkBefore == null ? 0 : bulkBefore.getRows());
+        assertThat(bulk.getAffectedRows()).isEqualTo((bulkBefore == null ? 0 : bulkBefore.getAffectedRows()) + affected);
+        assertThat(statistics("MemberRepository.existsById(Object)").getRows()).isZero();
+    }
+
+    @Test
+    void handWrittenBulkUpdateIsAffectedRows() {
+        //given
+        RepositoryMethodStatisticsDto before = statisticsOrNull("MemberJpaRepository.bulkAgePlus(int)");
+        memberJpaRepository.save(new Member("metrics3", 50));
+
+        //when: @Repository 클래스의 executeUpdate() 결과
+        int affected = memberJpaRepository.bulkAgePlus(50);
+
+        //then
+        assertThat(affected).isGreaterThanOrEqualTo(1);
+        RepositoryMethodStatisticsDto bulk = statistics("MemberJpaRepository.bulkAgePlus(int)");
+        assertThat(bulk.getRows()).isEqualTo(before == null ? 0 : before.getRows());
+        assertThat(bulk.getAffectedRows()).isEqualTo((before == null ? 0 : before.getAffectedRows()) + affected);
+    }
+
+    private RepositoryMethodStatisticsDto statistics(String method) {
+        return repositoryMetricsAspect.statistics().stream()
+                .filter(statistics -> statistics.getMethod().equals(method))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private RepositoryMethodStatisticsDto statisticsOrNull(String method) {
+        return repositoryMetricsAspect.statistics().stream()
+                .filter(statistics -> statistics.getMethod().equals(method))
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -5,6 +5,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import study.datajpa.entity.Item;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -43,4 +47,31 @@ class ItemRepositoryTest {
 
         itemRepository.save(item);
     }
-}
\ No newline at end of file
+
+    @Test
+    void upsertAll() {
+        //given
+        List<Item> firstBatch = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            firstBatch.add(new Item("upsert" + i));
+        }
+
+        //when
+        int inserted = itemRepository.upsertAll(firstBatch, 100);
+        LocalDateTime createdDate = itemRepository.findById("upsert0").get().getCreatedDate();
+
+        //절반은 이미 있는 id
+        List<Item> secondBatch = new ArrayList<>();
+        for (int i = 125; i < 375; i++) {
+            secondBatch.add(new Item("upsert" + i));
+        }
+        int insertedAgain = itemRepository.upsertAll(secondBatch, 100);
+
+        //then
+        assertEquals(250, inserted);
+        assertEquals(125, insertedAgain);
+        assertNotNull(createdDate);
+        assertEquals(createdDate, itemRepository.findById("upsert0").get().getCreatedDate());  // 기존 행의 createdDate 는 바뀌지 않는다.
+        assertFalse(itemRepository.findById("upsert374").get().isNew());
+    }
+}
@@ -132,13 +132,15 @@ class MemberJpaRepositoryTest {
         memberJpaRepository.save(new Member("AAA2",19));
         memberJpaRepository.save(new Member("AAA3",20));
         memberJpaRepository.save(new Member("AAA4",21));
-        memberJpaRepository.save(new Member("AAA5",40));
+        Member aaa5 = memberJpaRepository.save(new Member("AAA5",40));
 
         //when
         int resultCount = memberJpaRepository.bulkAgePlus(20);
+        em.clear();
 
         //then
         assertThat(resultCount).isEqualTo(3);
+        assertThat(memberJpaRepository.find(aaa5.getId()).getVersion()).isEqualTo(aaa5.getVersion() + 1);  // update versioned
     }
 
 
@@ -1,21 +1,40 @@
 package study.datajpa.repository;
 
+import com.sun.management.ThreadMXBean;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.metamodel.EntityType;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.CursorPage;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
-
+import study.datajpa.monitoring.CacheStatisticsDto;
+import study.datajpa.monitoring.MonitoringController;
+import study.datajpa.monitoring.QueryPlanCacheStatisticsDto;
+import study.datajpa.projection.ClosedProjection;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
 @SpringBootTest
 @Transactional
@@ -27,6 +46,12 @@ class MemberRepositoryTest {
     @Autowired
     TeamRepository teamRepository;
 
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MonitoringController monitoringController;
+
     @PersistenceContext
     EntityManager em;
 
@@ -163,6 +188,31 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    void findByNamesPaddedAndChunked() {
+        //given
+        Member first = memberRepository.save(new Member("inList0", 10));
+        Member last = memberRepository.save(new Member("inList2999", 10));
+        em.flush();
+        em.clear();
+
+        //when: 청크 크기(1024)를 넘는 목록 + 중복 이름
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            names.add("inList" + i);
+        }
+        names.add("inList0");
+        List<Member> result = memberRepository.findByNames(names);
+
+        //then: 청크를 나눠도 결과는 한 번에 조회한 것과 같다.
+        assertThat(result).extracting(Member::getId).containsExactlyInAnyOrder(first.getId(), last.getId());
+        assertThat(memberRepository.findByNames(List.of())).isEmpty();
+
+        QueryPlanCacheStatisticsDto hibernate = monitoringController.queryPlans().get(1);
+        assertThat(hibernate.getMaxSize()).isEqualTo(2048);
+        assertThat(hibernate.getSize()).isLessThanOrEqualTo(hibernate.getMaxSize());
+    }
+
     @Test
     void returnType() {
         Member member1 = new Member("AAA",10);
@@ -246,6 +296,26 @@ class MemberRepositoryTest {
         assertThat(resultCount).isEqualTo(3);
     }
 
+    @Test
+    void bulkUpdateIncrementsVersion() {
+        //given: 벌크 연산 전에 읽은 회원
+        Member saved = memberRepository.save(new Member("bulkVersion", 5000));
+        em.flush();
+        em.clear();
+        Member stale = memberRepository.findById(saved.getId()).get();
+
+        //when
+        memberRepository.bulkAgePlus(5000);  // clearAutomatically 로 stale 은 준영속이 된다.
+        stale.setAge(1);
+
+        //then: version 이 올라갔으므로 이전에 읽은 회원으로는 벌크 변경을 덮어쓸 수 없다.
+        assertThat(memberRepository.findById(saved.getId()).get().getVersion()).isEqualTo(stale.getVersion() + 1);
+        assertThatThrownBy(() -> {
+            em.merge(stale);
+            em.flush();
+        }).isInstanceOf(OptimisticLockException.class);
+    }
+
     @Test
     void findMemberLazy() {
         //given
@@ -335,6 +405,36 @@ class MemberRepositoryTest {
         assertThat(result.size()).isEqualTo(1);
     }
 
+    @Test
+    void searchWithCachedShape() {
+        //given
+        Team teamA = new Team("searchTeamA");
+        Team teamB = new Team("searchTeamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("search1", 0, teamA));
+        em.persist(new Member("search2", 0, teamA));
+        em.persist(new Member("search1", 0, teamB));
+        em.flush();
+        em.clear();
+
+        //when: 값만 다르고 형태가 같은 검색
+        MemberSearchCondition condition = new MemberSearchCondition("searchTeamA", "search1");
+        List<Member> result = memberRepository.search(condition);
+        long hits = monitoringController.queryPlans().get(0).getHits();
+        List<Member> other = memberRepository.search(new MemberSearchCondition("searchTeamB", "search1"));
+
+        //then: Specification 과 같은 결과이고, 두 번째 검색은 캐시된 JPQL 을 사용한다.
+        assertThat(result).extracting("id")
+                .containsExactlyInAnyOrderElementsOf(memberRepository.findAll(condition.toSpecification()).stream().map(Member::getId).toList());
+        assertThat(result).hasSize(1);
+        assertThat(other).hasSize(1);
+        assertThat(memberRepository.search(new MemberSearchCondition("searchTeamA", null))).hasSize(2);
+        MemberSearchCondition blankTeam = new MemberSearchCondition(" ", "search1");  // 공백뿐인 조건은 양쪽 모두 무시한다.
+        assertThat(memberRepository.search(blankTeam)).hasSize(memberRepository.findAll(blankTeam.toSpecification()).size());
+        assertThat(monitoringController.queryPlans().get(0).getHits()).isGreaterThan(hits);
+    }
+
     @Test
     void queryByExample() {
         //given
@@ -416,6 +516,88 @@ class MemberRepositoryTest {
         //실무에서는 단순할 때만 사용하고, 조금만 복잡해지면 QueryDSL을 사용하자
     }
 
+    @Test
+    void generatedProjection() {
+        //given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("generated1", 0, teamA));
+        em.persist(new Member("generated2", 0));
+        em.flush();
+        em.clear();
+
+        //when
+        List<UserNameOnly> usernames = memberRepository.findProjectionsInterfaceByUsername("generated1");
+        List<NestedClosedProjections> withTeam = memberRepository.findNestedProjectionsByUsername("generated1");
+        List<NestedClosedProjections> withoutTeam = memberRepository.findNestedProjectionsByUsername("generated2");
+
+        //then: 프록시가 아니라 컴파일 시 생성된 구현 클래스
+        assertThat(usernames).hasSize(1).allMatch(UserNameOnlyImpl.class::isInstance);
+        assertThat(usernames.get(0).getUsername()).isEqualTo("generated1");
+        assertThat(withTeam).allMatch(NestedClosedProjectionsImpl.class::isInstance);
+        assertThat(withTeam.get(0).getTeam().getName()).isEqualTo("teamA");
+        assertThat(withoutTeam.get(0).getTeam()).isNull();  // left join 으로 팀이 없으면 중첩 프로젝션도 null
+    }
+
+    @Test
+    void dynamicProjection() {
+        //given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("dynamic1", 10, teamA));
+        em.persist(new Member("dynamic1", 20));
+        em.flush();
+        em.clear();
+
+        //when
+        List<UsernameOnlyDto> dtos = memberRepository.findProjectionsClassByUsername("dynamic1", UsernameOnlyDto.class);
+        List<NestedClosedProjections> nested = memberRepository.findProjectionsClassByUsername("dynamic1", NestedClosedProjections.class);
+        List<UsernameAge> closed = memberRepository.findProjectionsClassByUsername("dynamic1", UsernameAge.class);
+        List<UsernameOpen> open = memberRepository.findProjectionsClassByUsername("dynamic1", UsernameOpen.class);
+        List<NestedUsername> nestedType = memberRepository.findProjectionsClassByUsername("dynamic1", NestedUsername.class);
+        List<Member> entities = memberRepository.findProjectionsClassByUsername("dynamic1", Member.class);
+
+        //then
+        assertThat(dtos).extracting("username").containsExactly("dynamic1", "dynamic1");
+        assertThat(nested).allMatch(NestedClosedProjectionsImpl.class::isInstance);  // 생성된 구현 클래스 (컬럼: username, team.name)
+        assertThat(nested).extracting(p -> p.getTeam() == null ? null : p.getTeam().getName())
+                .containsExactlyInAnyOrder("teamA", null);
+        assertThat(closed).extracting(UsernameAge::getAge).containsExactlyInAnyOrder(10, 20);  // 생성된 구현이 없으면 필요한 컬럼만 담은 프록시
+        assertThat(open).extracting(UsernameOpen::getDescription).containsExactlyInAnyOrder("dynamic1 10", "dynamic1 20");  // 엔티티 기반 프록시
+        assertThat(nestedType).hasSize(2).allMatch(MemberRepositoryTest_NestedUsernameImpl.class::isInstance);  // 중첩 인터페이스는 Outer_InnerImpl
+        assertThat(entities).hasSize(2);
+        assertThatThrownBy(() -> memberRepository.findProjectionsClassByUsername("dynamic1", String.class))  // 리포지토리 예외 변환
+                .isInstanceOf(InvalidDataAccessApiUsageException.class);
+    }
+
+    interface UsernameAge {
+        String getUsername();
+        int getAge();
+    }
+
+    interface UsernameOpen {
+        @Value("#{target.username + ' ' + target.age}")
+        String getDescription();
+    }
+
+    @Test
+    void dynamicProjectionPlan() {
+        EntityType<Member> root = em.getMetamodel().entity(Member.class);
+        SpelAwareProxyProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
+        //닫힌 인터페이스는 생성된 구현이 없어도 입력 프로퍼티만 조회한다.
+        String closed = ProjectionPlan.create(UsernameAge.class, root, "m.username = :username", projectionFactory).getJpql();
+        assertThat(closed).startsWith("select m.").contains("m.username").contains("m.age").doesNotContain("select m from");
+        //열린 프로젝션만 엔티티 전체를 조회한다.
+        String open = ProjectionPlan.create(UsernameOpen.class, root, "m.username = :username", projectionFactory).getJpql();
+        assertThat(open).startsWith("select m from");
+    }
+
+    @ClosedProjection
+    interface NestedUsername {
+        String getUsername();
+    }
+
     @Test
     void nativeQuery() {
         //given
@@ -463,4 +645,292 @@ class MemberRepositoryTest {
         //하이버네이트를 직접 활용
         //스프링 JdbcTemplate, myBatis, jooq같은 외부 라이브러리 사용
     }
-}
\ No newline at end of file
+
+    @Test
+    void nativeProjectionPaging() {
+        //given: 팀 1,000 개, 회원 10,000 명 (회원 x 는 팀 (x - 1) % 1000 + 1)
+        em.createNativeQuery("insert into team (team_id, name, version) " +
+                        "select x + 300000000, 'nativeTeam' || x, 0 from system_range(1, 1000)")
+                .executeUpdate();
+        em.createNativeQuery("insert into member (member_id, username, age, version, team_id) " +
+                        "select x + 400000000, 'native' || x, 10, 0, mod(x - 1, 1000) + 300000001 from system_range(1, 10000)")
+                .executeUpdate();
+        long total = memberRepository.count();
+
+        //when: 전체를 1,000 건씩 페이지로 읽는다.
+        long start = System.nanoTime();
+        List<MemberProjection> all = new ArrayList<>();
+        Page<MemberProjection> page = memberRepository.findByNativeProjection(PageRequest.of(0, 1000));
+        all.addAll(page.getContent());
+        while (page.hasNext()) {
+            page = memberRepository.findByNativeProjection(page.nextPageable());
+            all.addAll(page.getContent());
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("pages = " + (page.getNumber() + 1) + ", elapsed = " + elapsedMillis + "ms");
+
+        //then: 조인해도 행이 늘거나 빠지지 않고 count 쿼리와 일치한다.
+        assertThat(page.getTotalElements()).isEqualTo(total);
+        assertThat(all).hasSize((int) total);
+        assertThat(all).extracting("id").doesNotHaveDuplicates();
+        assertThat(all).allMatch(MemberProjectionImpl.class::isInstance);
+        assertThat(all).filteredOn(p -> p.getId() > 400000000L)
+                .extracting("id", "teamName")
+                .contains(tuple(400000001L, "nativeTeam1"), tuple(400001000L, "nativeTeam1000"), tuple(400001001L, "nativeTeam1"));
+        //join 조건이 없으면 10,000 x 1,000 = 1,000 만 행을 만든다.
+        assertThat(elapsedMillis).isLessThan(5_000);
+
+        Page<MemberProjection> byUsername = memberRepository.findByNativeProjection(PageRequest.of(3, 20, Sort.by("username")));
+        assertThat(byUsername.getContent()).hasSize(20)
+                .isSortedAccordingTo(Comparator.comparing(MemberProjection::getUsername));
+        assertThatThrownBy(() -> memberRepository.findByNativeProjection(PageRequest.of(0, 20, Sort.by("age"))))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class);  // 리포지토리 프록시가 IllegalArgumentException 을 변환
+    }
+
+    @Test
+    void keysetPaging() {
+        //given
+        memberRepository.save(new Member("keyset1",10));
+        memberRepository.save(new Member("keyset2",10));
+        memberRepository.save(new Member("keyset2",20));  // username 이 같으면 member_id 로 순서를 정한다.
+        memberRepository.save(new Member("keyset3",10));
+        memberRepository.save(new Member("keyset4",10));
+
+        //when
+        MemberCursor start = MemberCursor.after(MemberKeysetSort.USERNAME, 0L, "keyset");  // 다른 테스트 데이터("member1", "user0" ...) 앞에서 시작
+        CursorPage<Member> page1 = memberRepository.findMemberKeyset(start, 2);
+        CursorPage<Member> page2 = memberRepository.findMemberKeyset(MemberCursor.decode(page1.getNextCursor()), 2);
+        CursorPage<Member> page3 = memberRepository.findMemberKeyset(MemberCursor.decode(page2.getNextCursor()), 1);
+
+        //then
+        assertThat(page1.getContent()).extracting("username").containsExactly("keyset1", "keyset2");
+        assertThat(page2.getContent()).extracting("username").containsExactly("keyset2", "keyset3");
+        assertThat(page2.getContent().get(0).getAge()).isEqualTo(20);
+        assertThat(page3.getContent()).extracting("username").containsExactly("keyset4");
+    }
+
+    @Test
+    void keysetPagingIncludesNullUsernames() {
+        //given
+        Member last = memberRepository.save(new Member("\uffffkeyset", 10));  // username 이 있는 회원 중 마지막
+        Member null1 = memberRepository.save(new Member(null, 10));
+        Member null2 = memberRepository.save(new Member(null, 20));
+
+        //when: username 이 null 인 회원은 username 정렬의 마지막에 member_id 순으로 이어진다.
+        MemberCursor start = MemberCursor.after(MemberKeysetSort.USERNAME, 0L, "\uffff");
+        CursorPage<Member> page1 = memberRepository.findMemberKeyset(start, 2);
+        MemberCursor next = MemberCursor.decode(page1.getNextCursor());
+        CursorPage<Member> page2 = memberRepository.findMemberKeyset(next, 2);
+
+        //then
+        assertThat(page1.getContent()).containsExactly(last, null1);
+        assertThat(next.getUsername()).isNull();
+        assertThat(page2.getContent()).startsWith(null2);
+        assertThat(page2.getContent()).extracting(Member::getUsername).containsOnlyNulls();
+    }
+
+    @Test
+    void keysetPagingDeepPage() {
+        //given: 50,000 건 (size 5 기준 10,000 페이지)
+        int total = 50_000;
+        int size = 5;
+        em.createNativeQuery("insert into member (member_id, username, age, version) " +
+                        "select x + 100000000, 'seek' || lpad(cast(x as varchar), 6, '0'), 10, 0 from system_range(1, :total)")
+                .setParameter("total", total)
+                .executeUpdate();
+
+        //10,000 번째 페이지 직전 행(49,995 번째)의 키로 커서를 만든다.
+        int lastRowOfPrevPage = size * (10_000 - 1);
+        MemberCursor page10000 = MemberCursor.after(MemberKeysetSort.USERNAME,
+                100_000_000L + lastRowOfPrevPage, String.format("seek%06d", lastRowOfPrevPage));
+        MemberCursor page1 = MemberCursor.first(MemberKeysetSort.USERNAME);
+
+        //when
+        CursorPage<Member> deepPage = memberRepository.findMemberKeyset(page10000, size);
+        long firstPageNanos = medianNanos(() -> memberRepository.findMemberKeyset(page1, size));
+        long deepPageNanos = medianNanos(() -> memberRepository.findMemberKeyset(page10000, size));
+        System.out.println("page1 = " + firstPageNanos / 1000 + "us, page10000 = " + deepPageNanos / 1000 + "us");
+
+        //then
+        assertThat(deepPage.getContent()).extracting("username")
+                .containsExactly("seek049996", "seek049997", "seek049998", "seek049999", "seek050000");
+        //offset 페이징이라면 앞의 49,995 건을 읽고 버려야 하지만 키셋 페이징은 인덱스로 바로 찾아간다.
+        assertThat(deepPageNanos).isLessThan(firstPageNanos * 3 + 5_000_000L);
+    }
+
+    private long medianNanos(Runnable query) {
+        int runs = 21;
+        long[] elapsed = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            query.run();
+            elapsed[i] = System.nanoTime() - start;
+            em.clear();
+        }
+        Arrays.sort(elapsed);
+        return elapsed[runs / 2];
+    }
+
+    @Test
+    void saveAllBatched() {
+        //given
+        Member held = memberRepository.save(new Member("batchHeld", 10));  // 같은 트랜잭션에서 호출한 쪽이 들고 있는 엔티티
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            members.add(new Member("batch" + i, i));
+        }
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            teams.add(new Team("batchTeam" + i));
+        }
+
+        //when
+        int savedCount = memberRepository.saveAllBatched(members, 100);  // insert 100건씩 3번의 batch 로 전송
+        int savedTeamCount = teamRepository.saveAllBatched(teams, 10);
+        held.setAge(20);
+        em.flush();
+        em.clear();
+
+        //then
+        assertThat(savedCount).isEqualTo(250);
+        assertThat(savedTeamCount).isEqualTo(30);
+        assertThat(members.get(0).getId()).isNotNull();
+        assertThat(memberRepository.findByUsername("batch249")).hasSize(1);
+        assertThat(teamRepository.findById(teams.get(29).getId())).isPresent();
+        assertThat(memberRepository.findById(held.getId()).get().getAge()).isEqualTo(20);  // 분리되지 않아서 변경이 반영된다.
+    }
+
+    @Test
+    void saveAllBatchedDetachesOnlySavedEntities() {
+        Member held = memberRepository.save(new Member("batchHeld", 10));
+        List<Member> members = List.of(new Member("batchDetached", 10));
+
+        memberRepository.saveAllBatched(members, 100);
+
+        assertThat(em.contains(members.get(0))).isFalse();  // 저장한 회원은 batch 마다 분리되어 영속성 컨텍스트에 남아있지 않다.
+        assertThat(em.contains(held)).isTrue();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)  // 쿼리 캐시는 커밋된 데이터만 캐시하므로 트랜잭션 없이 실행
+    void queryCache() throws Exception {
+        //given
+        Member member = memberRepository.save(new Member("queryCache", 5000));
+        String region = "query.Member.findByUsername";
+
+        try {
+            //when
+            memberRepository.findByUsername("queryCache");  // DB 조회 후 캐시에 저장
+            long hits = cacheHits(region);
+            List<Member> cached = memberRepository.findByUsername("queryCache");  // 캐시에서 조회
+
+            //then
+            assertThat(cacheHits(region)).isEqualTo(hits + 1);
+            assertThat(cached.get(0).getAge()).isEqualTo(5000);
+
+            //when: 벌크 연산도 member 테이블을 변경하므로 캐시된 결과가 무효화된다.
+            transactionTemplate.executeWithoutResult(status -> memberRepository.bulkAgePlus(5000));
+            List<Member> result = memberRepository.findByUsername("queryCache");
+
+            //then
+            assertThat(result.get(0).getAge()).isEqualTo(5001);
+        } finally {
+            memberRepository.delete(member);
+        }
+    }
+
+    private long cacheHits(String region) throws Exception {
+        return monitoringController.caches().stream()
+                .filter(cache -> cache.getName().equals(region))
+                .mapToLong(CacheStatisticsDto::getHits)
+                .sum();
+    }
+
+    @Test
+    void findMemberDtoPage() {
+        //given
+        Team teamA = new Team("teamA");
+        teamRepository.save(teamA);
+        memberRepository.save(new Member("dtoPage1", 10, teamA));
+        memberRepository.save(new Member("dtoPage2", 10));
+
+        //when
+        Page<MemberDto> page = memberRepository.findMemberDtoPage(PageRequest.of(0, 2000, Sort.by("username")));
+
+        //then
+        assertThat(page.getContent()).filteredOn(dto -> dto.getUsername().startsWith("dtoPage"))
+                .extracting("username", "teamName")
+                .containsExactly(tuple("dtoPage1", "teamA"), tuple("dtoPage2", null));
+        assertThat(page.getTotalElements()).isEqualTo(memberRepository.count());
+    }
+
+    @Test
+    void findMemberDtoPageAllocation() {
+        //given
+        for (int i = 0; i < 100; i++) {
+            memberRepository.save(new Member("alloc" + i, i));
+        }
+        em.flush();
+        em.clear();
+        PageRequest pageRequest = PageRequest.of(0, 100, Sort.by("username"));
+
+        //when: 요청 1건(100건 페이지 조회 + DTO 변환)당 할당 바이트 비교
+        long entityBytes = allocatedBytesPerCall(() -> memberRepository.findAll(pageRequest)
+                .map(member -> new MemberDto(member.getId(), member.getUsername(), null)));
+        long dtoBytes = allocatedBytesPerCall(() -> memberRepository.findMemberDtoPage(pageRequest));
+        System.out.println("entity -> dto = " + entityBytes + " bytes, dto projection = " + dtoBytes + " bytes");
+
+        //then: 엔티티, 스냅샷, 영속성 컨텍스트 엔트리를 만들지 않는다.
+        assertThat(dtoBytes).isLessThan(entityBytes);
+    }
+
+    private long allocatedBytesPerCall(Runnable request) {
+        ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < 20; i++) {  // warm up (쿼리 계획 캐시, JIT)
+            request.run();
+            em.clear();
+        }
+
+        int iterations = 50;
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            request.run();
+            em.clear();  // 요청마다 새 영속성 컨텍스트를 사용하는 것과 같게 맞춘다.
+        }
+        return (threadMXBean.getThreadAllocatedBytes(threadId) - before) / iterations;
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)  // 청크마다 커밋하므로 트랜잭션 없이 실행
+    void bulkAgePlusInChunks() {
+        //given
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            members.add(new Member("chunk" + i, 7000));
+        }
+        memberRepository.saveAllBatched(members, 100);
+
+        try {
+            //when
+            List<Long> progress = new ArrayList<>();
+            long updated = memberRepository.bulkAgePlusInChunks(7000, 10,
+                    (lastId, maxId, chunkCount, totalCount) -> progress.add(totalCount));
+
+            //then
+            assertThat(updated).isEqualTo(25);
+            assertThat(progress).containsExactly(10L, 20L, 25L);  // 키셋으로 대상 회원 10명씩. id 간격과 상관없이 빈 청크가 없다.
+            assertThat(memberRepository.findById(members.get(0).getId()).get().getAge()).isEqualTo(7001);
+            assertThat(memberRepository.findById(members.get(0).getId()).get().getVersion()).isEqualTo(1L);
+        } finally {
+            memberRepository.deleteAllInBatch(members);
+        }
+    }
+
+    @Test
+    void bulkAgePlusInChunksRequiresNoTransaction() {
+        assertThatThrownBy(() -> memberRepository.bulkAgePlusInChunks(7000, 10, ChunkProgressListener.NONE))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class)  // 리포지토리 프록시가 IllegalStateException 을 변환
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,47 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Team;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class TeamRepositoryTest {
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @PersistenceUnit
+    EntityManagerFactory emf;
+
+    @Test
+    void secondLevelCache() {
+        //2차 캐시는 트랜잭션이 커밋되어야 반영되므로 @Transactional 없이 리포지토리 메소드마다 커밋한다.
+
+        //given
+        Team team = teamRepository.save(new Team("cachedTeam"));
+        Long teamId = team.getId();
+
+        //then: 저장(insert) 커밋 시점에 캐시에 올라간다.
+        assertThat(emf.getCache().contains(Team.class, teamId)).isTrue();
+
+        //when: 수정하면 캐시도 갱신된다.
+        team.setName("renamedTeam");
+        teamRepository.save(team);  // merge
+        Team findTeam = teamRepository.findById(teamId).get();  // 캐시에서 조회 (DB 조회 없음)
+
+        //then
+        assertThat(findTeam.getName()).isEqualTo("renamedTeam");
+
+        //when: 삭제하면 캐시에서도 제거된다.
+        teamRepository.delete(findTeam);
+
+        //then
+        assertThat(emf.getCache().contains(Team.class, teamId)).isFalse();
+        assertThat(teamRepository.findById(teamId)).isEmpty();
+    }
+}
@@ -0,0 +1,142 @@
+package study.datajpa.search;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class UsernamePrefixIndexTest {  // 커밋된 변경만 인덱스에 반영되므로 @Transactional 을 사용하지 않는다.
+
+    @Autowired
+    UsernamePrefixIndex index;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status ->
+                em.createQuery("delete from Member m where m.username like 'prefix%'").executeUpdate());
+        index.rebuild();  // 벌크 삭제는 엔티티 리스너를 거치지 않는다.
+    }
+
+    @Test
+    void searchAfterCommit() {
+        //given
+        Member apple = memberRepository.save(new Member("prefixApple", 10));
+        Member apricot = memberRepository.save(new Member("prefixApricot", 10));
+        Member banana = memberRepository.save(new Member("prefixBanana", 10));
+
+        //then: username, id 순으로 limit 건
+        assertThat(index.search("prefixAp", 10)).extracting(MemberDto::getId).containsExactly(apple.getId(), apricot.getId());
+        assertThat(index.search("prefix", 2)).extracting(MemberDto::getUsername).containsExactly("prefixApple", "prefixApricot");
+        assertThat(index.search("prefixZ", 10)).isEmpty();
+
+        //when: 수정, 삭제
+        transactionTemplate.executeWithoutResult(status ->
+                memberRepository.findById(banana.getId()).get().setUsername("prefixAvocado"));
+        memberRepository.delete(memberRepository.findById(apple.getId()).get());
+
+        //then
+        assertThat(index.search("prefixA", 10)).extracting(MemberDto::getUsername).containsExactly("prefixApricot", "prefixAvocado");
+        assertThat(index.search("prefixB", 10)).isEmpty();
+    }
+
+    @Test
+    void bulkDeleteIsEvicted() {
+        //given
+        Member bulk1 = memberRepository.save(new Member("prefixBulk1", 10));
+        Member bulk2 = memberRepository.save(new Member("prefixBulk2", 10));
+        Member bulk3 = memberRepository.save(new Member("prefixBulk3", 10));
+
+        //when: 엔티티 리스너를 거치지 않는 벌크 delete
+        memberRepository.deleteAllInBatch(List.of(bulk1));
+        memberRepository.deleteAllByIdInBatch(List.of(bulk2.getId()));
+
+        //then
+        assertThat(index.search("prefixBulk", 10)).extracting(MemberDto::getId).containsExactly(bulk3.getId());
+
+        //when: 롤백된 벌크 delete 는 반영하지 않는다.
+        transactionTemplate.executeWithoutResult(status -> {
+            memberRepository.deleteAllByIdInBatch(List.of(bulk3.getId()));
+            status.setRollbackOnly();
+        });
+
+        //then
+        assertThat(index.search("prefixBulk", 10)).extracting(MemberDto::getId).containsExactly(bulk3.getId());
+    }
+
+    @Test
+    void rebuildAfterBulkStatementCommits() {
+        //given
+        memberRepository.save(new Member("prefixRebuild", 10));
+
+        //when: 어떤 id 가 바뀌었는지 모르는 벌크 delete (deleteAllInBatch() 와 같은 방식)
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Member m where m.username = 'prefixRebuild'").executeUpdate();
+            index.rebuildAfterCommit();
+            assertThat(index.search("prefixRebuild", 10)).hasSize(1);  // 커밋 전에는 그대로
+        });
+
+        //then
+        assertThat(index.search("prefixRebuild", 10)).isEmpty();
+    }
+
+    @Test
+    void rollbackIsNotIndexed() {
+        //when
+        transactionTemplate.executeWithoutResult(status -> {
+            memberRepository.save(new Member("prefixRollback", 10));
+            memberRepository.flush();
+            status.setRollbackOnly();
+        });
+
+        //then
+        assertThat(index.search("prefixRollback", 10)).isEmpty();
+    }
+
+    @Test
+    void searchIsFast() {
+        //given
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            members.add(new Member("prefix" + i, 10));
+        }
+        memberRepository.saveAllBatched(members, 1000);
+
+        //when: 예열 후 측정
+        for (int i = 0; i < 10_000; i++) {
+            index.search("prefix" + (i % 100), 10);
+        }
+        long start = System.nanoTime();
+        int runs = 10_000;
+        for (int i = 0; i < runs; i++) {
+            index.search("prefix" + (i % 100), 10);
+        }
+        long averageNanos = (System.nanoTime() - start) / runs;
+        System.out.println("average = " + averageNanos + "ns");
+
+        //then
+        assertThat(index.search("prefix42", 10)).hasSize(10)
+                .extracting(MemberDto::getUsername).allMatch(username -> username.startsWith("prefix42"));
+        assertThat(averageNanos).isLessThan(100_000);  // 0.1ms
+    }
+}
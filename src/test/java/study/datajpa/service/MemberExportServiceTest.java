@@ -0,0 +1,59 @@
+package study.datajpa.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberExportServiceTest {
+
+    @Autowired
+    MemberExportService memberExportService;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    void exportNdjson() throws Exception {
+        //given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        Member member1 = new Member("export1", 10, teamA);
+        Member member2 = new Member("export2", 20);
+        em.persist(member1);
+        em.persist(member2);
+
+        em.flush();
+        em.clear();
+
+        //when
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = memberExportService.exportNdjson(out);
+
+        //then
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(count).isEqualTo(memberRepository.count());
+        assertThat(lines).hasSize((int) count);
+        assertThat(lines).filteredOn(line -> line.contains("\"username\":\"export1\""))
+                .singleElement(InstanceOfAssertFactories.STRING).contains("\"id\":" + member1.getId(), "\"teamName\":\"teamA\"");
+        assertThat(lines).filteredOn(line -> line.contains("\"username\":\"export2\""))
+                .singleElement(InstanceOfAssertFactories.STRING).contains("\"teamName\":null");
+    }
+}
@@ -0,0 +1,76 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class MemberServiceTest {  // 동시 트랜잭션끼리 경합해야 하므로 @Transactional 을 사용하지 않는다.
+
+    @Autowired
+    MemberService memberService;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @AfterEach
+    void tearDown() {
+        memberRepository.deleteAll(memberRepository.findListByUsername("contended"));
+    }
+
+    @Test
+    void optimisticLockRetry() throws Exception {
+        //given
+        Member member = memberRepository.save(new Member("contended", 0));
+
+        //when: 4개 스레드가 같은 회원을 5번씩 수정
+        runConcurrently(4, 5, () -> memberService.increaseAge("contended"));
+
+        //then: 충돌한 수정은 재시도되어 하나도 유실되지 않는다.
+        Member findMember = memberRepository.findById(member.getId()).get();
+        assertThat(findMember.getAge()).isEqualTo(20);
+        assertThat(findMember.getVersion()).isEqualTo(member.getVersion() + 20);
+    }
+
+    @Test
+    void pessimisticLock() throws Exception {
+        //given
+        Member member = memberRepository.save(new Member("contended", 0));
+
+        //when
+        runConcurrently(4, 5, () -> memberService.increaseAgeWithLock("contended"));
+
+        //then
+        assertThat(memberRepository.findById(member.getId()).get().getAge()).isEqualTo(20);
+    }
+
+    private void runConcurrently(int threads, int repeat, Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < repeat; j++) {
+                        task.run();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();  // 작업 중 예외가 있으면 테스트 실패
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}